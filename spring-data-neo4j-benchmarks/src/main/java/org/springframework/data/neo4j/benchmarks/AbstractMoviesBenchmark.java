@@ -0,0 +1,96 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.ogm.service.Components;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.Utils;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.neo4j.examples.movies.context.MoviesContext;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+
+/**
+ * The state shared by the benchmarks: an embedded database holding a small movies graph, used through the application
+ * context of the movies example of the test suite.
+ * <p>
+ * The graph has {@link #USERS} users named <code>user-0</code> and so on, each a friend of the next one. Users are
+ * spread over ten surnames and middle names, <code>surname-0</code> to <code>surname-9</code>, and each user rated two
+ * of the {@link #MOVIES} movies.
+ *
+ * @author Tobias Hartmann
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public abstract class AbstractMoviesBenchmark {
+
+    protected static final int USERS = 100;
+    protected static final int MOVIES = 20;
+
+    protected AnnotationConfigApplicationContext context;
+    protected Session session;
+    protected UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // the ogm.properties of the test suite points at a server, the embedded one creates a temporary store
+        Components.configure("ogm-embedded.properties");
+
+        context = new AnnotationConfigApplicationContext(MoviesContext.class);
+        session = context.getBean(Session.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        session.purgeDatabase();
+        session.query("UNWIND range(0, {users} - 1) AS i " +
+                "CREATE (:User {name: 'user-' + i, surname: 'surname-' + (i % 10), middleName: 'middle-' + (i % 10), age: i})",
+                Utils.map("users", USERS));
+        session.query("MATCH (u:User), (f:User) WHERE f.age = (u.age + 1) % {users} CREATE (u)-[:FRIEND_OF]->(f)",
+                Utils.map("users", USERS));
+        session.query("UNWIND range(0, {movies} - 1) AS i CREATE (:Movie {name: 'movie-' + i, rank: i})",
+                Utils.map("movies", MOVIES));
+        session.query("MATCH (u:User), (m:Movie) WHERE m.rank % 10 = u.age % 10 " +
+                "CREATE (u)-[:RATED {stars: 1 + (u.age + m.rank) % 5, comment: 'benchmark'}]->(m)",
+                Utils.map());
+
+        prepare();
+    }
+
+    /**
+     * Prepares the benchmark once the graph has been created.
+     */
+    protected void prepare() {
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        Components.driver().close();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserNames;
+
+/**
+ * Benchmarks the execution of derived finders, from a single property to a property of a related entity, and a finder
+ * returning a projection.
+ *
+ * @author Tobias Hartmann
+ */
+public class DerivedFinderBenchmark extends AbstractMoviesBenchmark {
+
+    @Benchmark
+    public Collection<User> findByProperty() {
+        return userRepository.findByMiddleName("middle-3");
+    }
+
+    @Benchmark
+    public List<User> findByRelatedProperty() {
+        return userRepository.findByRatingsStars(3);
+    }
+
+    @Benchmark
+    public List<UserNames> findProjection() {
+        return userRepository.findAllBySurname("surname-3");
+    }
+}
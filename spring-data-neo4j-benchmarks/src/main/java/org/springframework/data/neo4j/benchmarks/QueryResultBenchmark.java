@@ -0,0 +1,51 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.neo4j.annotation.QueryResult;
+import org.springframework.data.neo4j.examples.movies.domain.queryresult.EntityWrappingQueryResult;
+import org.springframework.data.neo4j.examples.movies.domain.queryresult.UserQueryResult;
+import org.springframework.data.neo4j.examples.movies.domain.queryresult.UserQueryResultInterface;
+
+/**
+ * Benchmarks the mapping of <code>&#064;Query</code> results onto {@link QueryResult} classes, proxied interfaces and
+ * classes wrapping entities.
+ *
+ * @author Tobias Hartmann
+ */
+public class QueryResultBenchmark extends AbstractMoviesBenchmark {
+
+    @Benchmark
+    public void concrete(Blackhole blackhole) {
+        for (UserQueryResult result : userRepository.retrieveAllUsersAndTheirAges()) {
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    public int proxy() {
+        // the values are only read through the proxy, so read one of them
+        UserQueryResultInterface result = userRepository.findIndividualUserAsProxiedObject("user-42");
+        return result.getAgeOfUser();
+    }
+
+    @Benchmark
+    public List<EntityWrappingQueryResult> wrappingEntities() {
+        return userRepository.findAllUserRatings();
+    }
+}
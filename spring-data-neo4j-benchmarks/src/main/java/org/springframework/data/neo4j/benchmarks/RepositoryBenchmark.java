@@ -0,0 +1,57 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.repository.GraphRepositoryImpl;
+
+/**
+ * Benchmarks the CRUD methods of {@link GraphRepositoryImpl} at the depths most applications load and save with.
+ *
+ * @author Tobias Hartmann
+ */
+public class RepositoryBenchmark extends AbstractMoviesBenchmark {
+
+    @Param({"0", "1", "2"})
+    public int depth;
+
+    private Long userId;
+    private User user;
+    private int saves;
+
+    @Override
+    protected void prepare() {
+        userId = userRepository.findByName("user-0").iterator().next().getId();
+        user = userRepository.findOne(userId, depth);
+    }
+
+    @Benchmark
+    public User findOne() {
+        return userRepository.findOne(userId, depth);
+    }
+
+    @Benchmark
+    public Iterable<User> findAll() {
+        return userRepository.findAll(depth);
+    }
+
+    @Benchmark
+    public User save() {
+        // alternate between two values so that every save has a change to write
+        user.setMiddleName("saved-" + (saves++ & 1));
+        return userRepository.save(user, depth);
+    }
+}
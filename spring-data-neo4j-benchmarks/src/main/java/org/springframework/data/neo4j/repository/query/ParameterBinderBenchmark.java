@@ -0,0 +1,70 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.data.neo4j.benchmarks.AbstractMoviesBenchmark;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Benchmarks binding the arguments of <code>&#064;Query</code> methods to Cypher parameters, apart from running the
+ * query.  It lives in the package of {@link ParameterBinder} to call it directly.
+ *
+ * @author Tobias Hartmann
+ */
+public class ParameterBinderBenchmark extends AbstractMoviesBenchmark {
+
+    private ParameterBinder positional;
+    private ParameterBinder named;
+    private ParameterBinder entity;
+    private User user;
+
+    @Override
+    protected void prepare() {
+        positional = binder("findUserByName", String.class);
+        named = binder("findUserByNameWithNamedParam", String.class);
+        entity = binder("loadUserByNamedId", User.class);
+        // the graph ID of an entity is only known once the session has loaded it
+        user = userRepository.findByName("user-0").iterator().next();
+    }
+
+    @Benchmark
+    public Map<String, Object> positional() {
+        return positional.bind(new Object[] {"user-0"}, session);
+    }
+
+    @Benchmark
+    public Map<String, Object> named() {
+        return named.bind(new Object[] {"user-0"}, session);
+    }
+
+    @Benchmark
+    public Map<String, Object> entity() {
+        return entity.bind(new Object[] {user}, session);
+    }
+
+    private ParameterBinder binder(String methodName, Class<?> parameterType) {
+        RepositoryMetadata metadata = new DefaultRepositoryMetadata(UserRepository.class);
+        GraphQueryMethod queryMethod = new GraphQueryMethod(ReflectionUtils.findMethod(UserRepository.class, methodName, parameterType),
+                metadata, new SpelAwareProxyProjectionFactory(), session);
+        return queryMethod.getParameterBinder();
+    }
+}
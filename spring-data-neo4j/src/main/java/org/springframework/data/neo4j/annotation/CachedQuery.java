@@ -0,0 +1,54 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the results of a <code>&#064;Query</code> repository method, keyed by the query and its parameters, in the
+ * {@link org.springframework.data.neo4j.repository.support.QueryResultCache} declared as a bean. Without such a bean,
+ * the annotation has no effect.
+ * <p>
+ * Cached results are discarded once their time to live has passed, and whenever an entity carrying one of the
+ * labels of the query is saved or deleted through the {@link org.springframework.data.neo4j.template.Neo4jTemplate}.
+ * Cached objects are handed to every caller, so they should not be modified.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface CachedQuery {
+
+    /**
+     * The time in milliseconds for which results are kept.
+     */
+    long ttl() default 60000;
+
+    /**
+     * The maximum number of results kept for the method, the least recently used ones being evicted first.
+     */
+    int maxSize() default 100;
+
+    /**
+     * The labels, or relationship types, whose changes invalidate the cached results. Defaults to the labels of the
+     * domain type of the repository.
+     */
+    String[] labels() default {};
+}
@@ -35,4 +35,10 @@ public @interface Query {
      * Defines the Cypher query to be executed when the annotated method is called.
      */
     String value() default "";
+
+    /**
+     * Defines the Cypher query that counts all the results of the query when the annotated method returns a
+     * {@link org.springframework.data.domain.Page}.  If none is given, the total number of elements of the page is estimated.
+     */
+    String countQuery() default "";
 }
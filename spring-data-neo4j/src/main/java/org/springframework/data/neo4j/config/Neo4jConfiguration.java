@@ -18,6 +18,7 @@ import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
@@ -26,10 +27,15 @@ import org.springframework.dao.annotation.PersistenceExceptionTranslationPostPro
 import org.springframework.dao.support.PersistenceExceptionTranslationInterceptor;
 import org.springframework.dao.support.PersistenceExceptionTranslator;
 import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.template.InstrumentedNeo4jOperations;
 import org.springframework.data.neo4j.template.Neo4jOgmExceptionTranslator;
 import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.data.neo4j.template.Neo4jTemplate;
 import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.data.neo4j.transaction.SessionRoutingPolicy;
+import org.springframework.data.neo4j.transaction.SharedSessionCreator;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.Assert;
 
@@ -37,6 +43,9 @@ import javax.annotation.Resource;
 
 /**
  * The base Spring configuration bean from which users are recommended to inherit when setting up Spring Data Neo4j.
+ * A {@link Neo4jMetrics} bean, if declared, records the operations of the template, which is then wrapped in an
+ * {@link InstrumentedNeo4jOperations}, and the transactions of the transaction manager. A {@link SlowQueryLog} bean
+ * logs the slow queries of the template.
  *
  * @author Vince Bickers
  */
@@ -48,17 +57,44 @@ public abstract class Neo4jConfiguration {
     @Resource
     private Environment environment;
 
+    @Autowired(required = false)
+    private Neo4jMetrics metrics;
+
+    @Autowired(required = false)
+    private SlowQueryLog slowQueryLog;
+
+    /**
+     * Provides the shared {@link Session} used by the template, repositories and transaction manager. Calls on it are
+     * routed to a session scoped to the current transaction, or to the current thread when no transaction is active,
+     * so concurrent callers never share an identity map or a transaction.
+     *
+     * @return a thread-safe session proxy
+     * @see SharedSessionCreator
+     */
     @Bean
     public Session getSession() throws Exception {
-        logger.info("Initialising Neo4jSession");
+        logger.info("Initialising shared Neo4jSession");
         SessionFactory sessionFactory = getSessionFactory();
         Assert.notNull(sessionFactory, "You must provide a SessionFactory instance in your Spring configuration classes");
-        return sessionFactory.openSession();
+        return SharedSessionCreator.createSharedSession(sessionFactory, getSessionRoutingPolicy());
+    }
+
+    /**
+     * Override to route the sessions of read-only transactions to read replicas.
+     *
+     * @return the policy selecting the {@link SessionFactory} each new session is opened from, or <code>null</code>
+     * to open every session from {@link #getSessionFactory()}
+     * @see org.springframework.data.neo4j.transaction.ReadReplicaRoutingPolicy
+     */
+    protected SessionRoutingPolicy getSessionRoutingPolicy() {
+        return null;
     }
 
     @Bean
     public Neo4jOperations neo4jTemplate() throws Exception {
-        return new Neo4jTemplate(getSession());
+        Neo4jTemplate template = new Neo4jTemplate(getSession());
+        template.setSlowQueryLog(slowQueryLog);
+        return metrics != null ? new InstrumentedNeo4jOperations(template, metrics) : template;
     }
 
     @Bean
@@ -89,7 +125,9 @@ public abstract class Neo4jConfiguration {
         logger.info("Initialising Neo4jTransactionManager");
         Session session = getSession();
         Assert.notNull(session, "You must provide a Session instance in your Spring configuration classes");
-        return new Neo4jTransactionManager(session);
+        Neo4jTransactionManager transactionManager = new Neo4jTransactionManager(session);
+        transactionManager.setMetrics(metrics);
+        return transactionManager;
     }
 
     @Bean
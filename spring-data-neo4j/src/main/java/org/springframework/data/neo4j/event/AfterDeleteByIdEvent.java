@@ -0,0 +1,31 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.event;
+
+import java.util.Collection;
+
+/**
+ * {@link Neo4jDeleteByIdEvent} published after entities are deleted by their graph ids.
+ *
+ * @author Tobias Hartmann
+ */
+public class AfterDeleteByIdEvent extends Neo4jDeleteByIdEvent {
+
+    private static final long serialVersionUID = 6032948110283747105L;
+
+    public AfterDeleteByIdEvent(Object source, Class<?> entityType, Collection<Long> ids) {
+        super(source, entityType, ids);
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.event;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * A Spring {@link ApplicationEvent} published by {@link org.springframework.data.neo4j.template.Neo4jTemplate} when
+ * entities are deleted by their graph ids, without being loaded.  Unlike a {@link Neo4jDataManipulationEvent}, it
+ * carries the type and ids of the deleted entities rather than the entities themselves.
+ *
+ * @author Tobias Hartmann
+ */
+public class Neo4jDeleteByIdEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -3164392470150916723L;
+
+    private final Class<?> entityType;
+    private final Collection<Long> ids;
+
+    public Neo4jDeleteByIdEvent(Object source, Class<?> entityType, Collection<Long> ids) {
+        super(source);
+        this.entityType = entityType;
+        this.ids = Collections.unmodifiableCollection(ids);
+    }
+
+    /**
+     * @return the class of the deleted entities
+     */
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * @return the graph ids of the deleted nodes or relationship entities
+     */
+    public Collection<Long> getIds() {
+        return ids;
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the measurements in memory, per owner, method and depth, and reports them as {@link OperationStatistics} and
+ * {@link TransactionStatistics}. Latencies are counted in histograms of fixed size, so memory use only grows with
+ * the number of distinct methods, depths and exception classes. Failures are counted per exception class.
+ *
+ * @author Tobias Hartmann
+ */
+public class InMemoryNeo4jMetrics implements Neo4jMetrics {
+
+    private final ConcurrentMap<Key, Operation> operations = new ConcurrentHashMap<>();
+    private volatile Transactions transactions = new Transactions();
+
+    @Override
+    public void recordOperation(String owner, String method, int depth, long elapsedNanos, long rows,
+                                long entityResults) {
+        Operation operation = operation(owner, method, depth);
+        operation.latencies.record(elapsedNanos);
+        if (rows >= 0) {
+            operation.rows.addAndGet(rows);
+        }
+        if (entityResults >= 0) {
+            operation.entityResults.addAndGet(entityResults);
+        }
+    }
+
+    @Override
+    public void recordFailure(String owner, String method, int depth, long elapsedNanos, Throwable error) {
+        Operation operation = operation(owner, method, depth);
+        operation.failureLatencies.record(elapsedNanos);
+        String errorName = error.getClass().getName();
+        AtomicLong count = operation.failures.get(errorName);
+        if (count == null) {
+            AtomicLong created = new AtomicLong();
+            count = operation.failures.putIfAbsent(errorName, created);
+            if (count == null) {
+                count = created;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void recordTransaction(long elapsedNanos, boolean committed) {
+        Transactions current = transactions;
+        current.durations.record(elapsedNanos);
+        (committed ? current.commits : current.rollbacks).incrementAndGet();
+    }
+
+    /**
+     * @return A snapshot of the statistics of every recorded owner, method and depth
+     */
+    public List<OperationStatistics> getOperationStatistics() {
+        List<OperationStatistics> statistics = new ArrayList<>();
+        for (ConcurrentMap.Entry<Key, Operation> entry : operations.entrySet()) {
+            statistics.add(entry.getValue().statistics(entry.getKey()));
+        }
+        return statistics;
+    }
+
+    /**
+     * @return A snapshot of the statistics of the given method of the given repository interface or template class,
+     * one per depth
+     */
+    public List<OperationStatistics> getOperationStatistics(String owner, String method) {
+        List<OperationStatistics> statistics = new ArrayList<>();
+        for (ConcurrentMap.Entry<Key, Operation> entry : operations.entrySet()) {
+            if (entry.getKey().owner.equals(owner) && entry.getKey().method.equals(method)) {
+                statistics.add(entry.getValue().statistics(entry.getKey()));
+            }
+        }
+        return statistics;
+    }
+
+    public TransactionStatistics getTransactionStatistics() {
+        Transactions current = transactions;
+        return new TransactionStatistics(current.commits.get(), current.rollbacks.get(), current.durations.getTotalNanos(),
+                current.durations.getMaxNanos(), current.durations.getPercentileNanos(99));
+    }
+
+    /**
+     * Discards all the measurements recorded so far.
+     */
+    public void reset() {
+        operations.clear();
+        transactions = new Transactions();
+    }
+
+    private Operation operation(String owner, String method, int depth) {
+        Key key = new Key(owner, method, depth);
+        Operation operation = operations.get(key);
+        if (operation == null) {
+            Operation created = new Operation();
+            operation = operations.putIfAbsent(key, created);
+            if (operation == null) {
+                operation = created;
+            }
+        }
+        return operation;
+    }
+
+    private static class Operation {
+
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong entityResults = new AtomicLong();
+        private final LatencyHistogram failureLatencies = new LatencyHistogram();
+        private final ConcurrentMap<String, AtomicLong> failures = new ConcurrentHashMap<>();
+
+        OperationStatistics statistics(Key key) {
+            Map<String, Long> failureCounts = new HashMap<>();
+            for (Map.Entry<String, AtomicLong> failure : failures.entrySet()) {
+                failureCounts.put(failure.getKey(), failure.getValue().get());
+            }
+            return new OperationStatistics(key.owner, key.method, key.depth, latencies.getCount(),
+                    latencies.getTotalNanos(), latencies.getMaxNanos(), latencies.getPercentileNanos(50),
+                    latencies.getPercentileNanos(95), latencies.getPercentileNanos(99), rows.get(), entityResults.get(),
+                    failureLatencies.getCount(), failureLatencies.getMaxNanos(), failureCounts);
+        }
+    }
+
+    private static class Transactions {
+
+        private final LatencyHistogram durations = new LatencyHistogram();
+        private final AtomicLong commits = new AtomicLong();
+        private final AtomicLong rollbacks = new AtomicLong();
+    }
+
+    private static class Key {
+
+        private final String owner;
+        private final String method;
+        private final int depth;
+
+        Key(String owner, String method, int depth) {
+            this.owner = owner;
+            this.method = method;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return depth == that.depth && owner.equals(that.owner) && method.equals(that.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * owner.hashCode() + method.hashCode()) + depth;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.neo4j.ogm.model.Result;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.neo4j.annotation.QueryResult;
+import org.springframework.data.neo4j.repository.KeysetSlice;
+
+/**
+ * Helps instrumented components work out what to record about the results of an operation.
+ *
+ * @author Tobias Hartmann
+ */
+public final class MetricsUtils {
+
+    private MetricsUtils() {
+    }
+
+    /**
+     * Records an operation that has just completed with the given result. Does nothing if metrics is
+     * <code>null</code>.
+     *
+     * @param metrics      The recorder, may be <code>null</code>
+     * @param startNanos   The value of {@link System#nanoTime()} when the operation started
+     * @param mapsEntities <code>true</code> if the objects returned by the operation are entities
+     * @return The result
+     */
+    public static <T> T record(Neo4jMetrics metrics, String owner, String method, int depth, long startNanos,
+                               T result, boolean mapsEntities) {
+        if (metrics != null) {
+            long rows = rows(result);
+            metrics.recordOperation(owner, method, depth, System.nanoTime() - startNanos, rows,
+                    mapsEntities ? rows : rows == Neo4jMetrics.UNKNOWN ? Neo4jMetrics.UNKNOWN : 0);
+        }
+        return result;
+    }
+
+    /**
+     * Records an operation that has just thrown the given exception, including one that timed out. Does nothing if
+     * metrics is <code>null</code>.
+     *
+     * @param metrics    The recorder, may be <code>null</code>
+     * @param startNanos The value of {@link System#nanoTime()} when the operation started
+     */
+    public static void recordFailure(Neo4jMetrics metrics, String owner, String method, int depth, long startNanos,
+                                     Throwable error) {
+        if (metrics != null) {
+            metrics.recordFailure(owner, method, depth, System.nanoTime() - startNanos, error);
+        }
+    }
+
+    /**
+     * Counts the rows or objects returned by an operation, without consuming results that can only be iterated
+     * once.
+     *
+     * @return The number of rows or objects, or {@link Neo4jMetrics#UNKNOWN} if it can't be worked out cheaply
+     */
+    public static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Result) {
+            Iterable<Map<String, Object>> rows = ((Result) result).queryResults();
+            return rows instanceof Collection ? ((Collection<?>) rows).size() : Neo4jMetrics.UNKNOWN;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof KeysetSlice) {
+            return ((KeysetSlice<?>) result).getContent().size();
+        }
+        if (result instanceof Iterable || result instanceof Iterator) {
+            return Neo4jMetrics.UNKNOWN;
+        }
+        return 1;
+    }
+
+    /**
+     * @return <code>true</code> if the given type, returned by a query, is mapped as entities rather than as simple
+     * values or rows
+     */
+    public static boolean isEntityType(Class<?> type) {
+        return !BeanUtils.isSimpleValueType(type) && !Map.class.isAssignableFrom(type) && !Object.class.equals(type)
+                && !type.isInterface() && !type.isAnnotationPresent(QueryResult.class) && !Result.class.isAssignableFrom(type);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+/**
+ * Receives the measurements taken by the {@link org.springframework.data.neo4j.template.Neo4jTemplate}, the query
+ * methods of graph repositories and the {@link org.springframework.data.neo4j.transaction.Neo4jTransactionManager}.
+ * <p>
+ * When declared as a bean, it is picked up by <code>Neo4jConfiguration</code> and by the repository factory beans.
+ * {@link InMemoryNeo4jMetrics} keeps the measurements in memory; other implementations can forward them to a
+ * monitoring system, using the owner and method as tags. Implementations are called on the calling thread, so they
+ * must be thread-safe and quick.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public interface Neo4jMetrics {
+
+    /**
+     * A depth, row count or entity count that doesn't apply to, or can't be worked out for, an operation.
+     */
+    int UNKNOWN = -1;
+
+    /**
+     * Records a template operation or repository query method that completed normally.
+     *
+     * @param owner         The simple name of the repository interface, or of the template class
+     * @param method        The name of the repository query method or template operation
+     * @param depth         The depth at which entities were loaded, or {@link #UNKNOWN}
+     * @param elapsedNanos  The time taken, in nanoseconds
+     * @param rows          The number of rows or objects returned, or {@link #UNKNOWN}
+     * @param entityResults The number of entities returned at the top level of the results, not counting the related
+     *                      entities loaded along with them, or {@link #UNKNOWN}
+     */
+    void recordOperation(String owner, String method, int depth, long elapsedNanos, long rows, long entityResults);
+
+    /**
+     * Records a template operation or repository query method that threw an exception, including one that timed out.
+     * Failures are recorded apart from the operations that completed normally, so that they don't skew their latency
+     * and can be counted per exception.
+     *
+     * @param owner        The simple name of the repository interface, or of the template class
+     * @param method       The name of the repository query method or template operation
+     * @param depth        The depth at which entities were to be loaded, or {@link #UNKNOWN}
+     * @param elapsedNanos The time taken until the exception was thrown, in nanoseconds
+     * @param error        The exception thrown, whose class can be used as a tag
+     */
+    void recordFailure(String owner, String method, int depth, long elapsedNanos, Throwable error);
+
+    /**
+     * Records the completion of a transaction begun by the transaction manager.
+     *
+     * @param elapsedNanos The time from the beginning of the transaction to its completion, in nanoseconds
+     * @param committed    <code>true</code> if the transaction was committed, <code>false</code> if it was rolled back
+     */
+    void recordTransaction(long elapsedNanos, boolean committed);
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the measurements recorded by {@link InMemoryNeo4jMetrics} for one repository query method or template
+ * operation, at one depth. The count, times, rows and entity results are those of the calls that completed normally,
+ * and the calls that threw an exception are counted as failures.
+ *
+ * @author Tobias Hartmann
+ */
+public class OperationStatistics {
+
+    private final String owner;
+    private final String method;
+    private final int depth;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long rows;
+    private final long entityResults;
+    private final long failureCount;
+    private final long maxFailureNanos;
+    private final Map<String, Long> failures;
+
+    public OperationStatistics(String owner, String method, int depth, long count, long totalNanos, long maxNanos,
+                               long p50Nanos, long p95Nanos, long p99Nanos, long rows, long entityResults,
+                               long failureCount, long maxFailureNanos, Map<String, Long> failures) {
+        this.owner = owner;
+        this.method = method;
+        this.depth = depth;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+        this.rows = rows;
+        this.entityResults = entityResults;
+        this.failureCount = failureCount;
+        this.maxFailureNanos = maxFailureNanos;
+        this.failures = failures;
+    }
+
+    /**
+     * @return the simple name of the repository interface or template class
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the depth at which entities were loaded, or {@link Neo4jMetrics#UNKNOWN}
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of calls that completed normally
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxTime(TimeUnit unit) {
+        return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public double getMeanTime(TimeUnit unit) {
+        return count == 0 ? 0 : (double) totalNanos / count / unit.toNanos(1);
+    }
+
+    /**
+     * @return an upper bound of the median time, accurate to within a factor of two
+     */
+    public long getP50Time(TimeUnit unit) {
+        return unit.convert(p50Nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return an upper bound of the 95th percentile time, accurate to within a factor of two
+     */
+    public long getP95Time(TimeUnit unit) {
+        return unit.convert(p95Nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return an upper bound of the 99th percentile time, accurate to within a factor of two
+     */
+    public long getP99Time(TimeUnit unit) {
+        return unit.convert(p99Nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the total number of rows or objects returned, leaving out the calls for which it couldn't be worked out
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the total number of entities returned at the top level of the results, leaving out the related entities
+     * loaded along with them and the calls for which it couldn't be worked out
+     */
+    public long getEntityResults() {
+        return entityResults;
+    }
+
+    /**
+     * @return the number of calls that threw an exception, including those that timed out
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return the longest time a call took until it threw an exception
+     */
+    public long getMaxFailureTime(TimeUnit unit) {
+        return unit.convert(maxFailureNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return the number of calls that threw an exception, by name of the exception class
+     */
+    public Map<String, Long> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    @Override
+    public String toString() {
+        return "OperationStatistics{" + owner + "." + method + ", depth=" + depth + ", count=" + count
+                + ", meanUs=" + getMeanTime(TimeUnit.MICROSECONDS) + ", p99Us=" + getP99Time(TimeUnit.MICROSECONDS)
+                + ", maxUs=" + getMaxTime(TimeUnit.MICROSECONDS) + ", rows=" + rows + ", entityResults=" + entityResults
+                + ", failures=" + failureCount + "}";
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Logs the Cypher queries that take longer than a threshold, and keeps the most recent ones in memory.
+ * <p>
+ * When declared as a bean, it is picked up by <code>Neo4jConfiguration</code> for the queries of the
+ * {@link org.springframework.data.neo4j.template.Neo4jTemplate}, and by the repository factory beans for repository
+ * query methods. Parameter values are never logged: only their names and types are. Derived finders, whose Cypher is
+ * generated by the OGM, are reported by method name along with the properties they filter on.
+ * </p>
+ * <p>
+ * The OGM doesn't report query plans, so they are only captured when a {@link PlanCapture} is set, typically running
+ * the query with <code>PROFILE</code> through a driver. Only statements that don't write to the graph are captured.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class SlowQueryLog {
+
+    public static final int DEFAULT_CAPACITY = 100;
+
+    private static final Pattern WRITE_CLAUSE = Pattern.compile("\\b(CREATE|MERGE|SET|DELETE|REMOVE|LOAD\\s+CSV|CALL)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+    private final long thresholdNanos;
+    private final int capacity;
+    private final ArrayDeque<SlowQuery> slowQueries;
+    private final ThreadLocal<Boolean> capturing = new ThreadLocal<>();
+    private volatile PlanCapture planCapture;
+
+    /**
+     * @param thresholdMillis The time in milliseconds from which a query is considered slow
+     */
+    public SlowQueryLog(long thresholdMillis) {
+        this(thresholdMillis, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param thresholdMillis The time in milliseconds from which a query is considered slow
+     * @param capacity        The number of slow queries kept in memory, the oldest being discarded first
+     */
+    public SlowQueryLog(long thresholdMillis, int capacity) {
+        Assert.isTrue(thresholdMillis >= 0, "The threshold must not be negative");
+        Assert.isTrue(capacity > 0, "The capacity must be positive");
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.capacity = capacity;
+        this.slowQueries = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * @param planCapture Captures the plans of slow queries, or <code>null</code> not to capture them (the default)
+     */
+    public void setPlanCapture(PlanCapture planCapture) {
+        this.planCapture = planCapture;
+    }
+
+    public long getThreshold(TimeUnit unit) {
+        return unit.convert(thresholdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Logs and keeps a Cypher query if it took at least as long as the threshold. Queries run while capturing a plan
+     * are ignored.
+     *
+     * @param source       Where the query was run from, e.g. <code>UserRepository.findByName</code>
+     * @param cypher       The Cypher statement
+     * @param parameters   The parameters of the statement, may be <code>null</code>
+     * @param elapsedNanos The time taken, in nanoseconds
+     * @param rows         The number of rows or objects returned, or {@link Neo4jMetrics#UNKNOWN}
+     */
+    public void record(String source, String cypher, Map<String, ?> parameters, long elapsedNanos, long rows) {
+        record(source, cypher, parameters, elapsedNanos, rows, true);
+    }
+
+    /**
+     * Logs and keeps a query if it took at least as long as the threshold. Queries run while capturing a plan are
+     * ignored.
+     *
+     * @param statement The Cypher statement, or a description of the query if it isn't Cypher
+     * @param cypher    <code>false</code> if the statement is a description, whose plan can't be captured
+     * @see #record(String, String, Map, long, long)
+     */
+    public void record(String source, String statement, Map<String, ?> parameters, long elapsedNanos, long rows,
+                       boolean cypher) {
+        if (elapsedNanos < thresholdNanos || Boolean.TRUE.equals(capturing.get())) {
+            return;
+        }
+        Map<String, String> redacted = redact(parameters);
+        logger.warn("Slow query from {} took {} ms and returned {} rows: {} {}", source,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows == Neo4jMetrics.UNKNOWN ? "?" : rows, statement, redacted);
+
+        String plan = cypher ? capturePlan(statement, parameters) : null;
+        SlowQuery slowQuery = new SlowQuery(System.currentTimeMillis(), source, statement, redacted, elapsedNanos, rows, plan);
+        synchronized (slowQueries) {
+            if (slowQueries.size() == capacity) {
+                slowQueries.removeFirst();
+            }
+            slowQueries.addLast(slowQuery);
+        }
+    }
+
+    /**
+     * @return The slow queries kept in memory, oldest first
+     */
+    public List<SlowQuery> getSlowQueries() {
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    public void clear() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+        }
+    }
+
+    /**
+     * Describes parameters without their values, e.g. <code>{name=String, ids=ArrayList[3]}</code>.
+     */
+    public static Map<String, String> redact(Map<String, ?> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> redacted = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> parameter : parameters.entrySet()) {
+            Object value = parameter.getValue();
+            String description;
+            if (value == null) {
+                description = "null";
+            } else if (value instanceof Collection) {
+                description = value.getClass().getSimpleName() + "[" + ((Collection<?>) value).size() + "]";
+            } else if (value instanceof Map) {
+                description = value.getClass().getSimpleName() + "[" + ((Map<?, ?>) value).size() + "]";
+            } else {
+                description = value.getClass().getSimpleName();
+            }
+            redacted.put(parameter.getKey(), description);
+        }
+        return redacted;
+    }
+
+    private String capturePlan(String statement, Map<String, ?> parameters) {
+        PlanCapture capture = planCapture;
+        if (capture == null || WRITE_CLAUSE.matcher(statement).find()) {
+            return null;
+        }
+        capturing.set(Boolean.TRUE);
+        try {
+            return capture.capture(statement, parameters != null ? parameters : Collections.<String, Object>emptyMap());
+        } catch (RuntimeException e) {
+            logger.debug("Could not capture the plan of a slow query", e);
+            return null;
+        } finally {
+            capturing.remove();
+        }
+    }
+
+    /**
+     * Captures the plan of a slow query, for instance by running it again prefixed with <code>PROFILE</code>. It is
+     * called on the thread that ran the query, which is then still in its transaction.
+     */
+    public interface PlanCapture {
+
+        /**
+         * @return A description of the plan, or <code>null</code> if it can't be captured
+         */
+        String capture(String cypher, Map<String, ?> parameters);
+    }
+
+    /**
+     * A query that took at least as long as the threshold.
+     */
+    public static class SlowQuery {
+
+        private final long timestamp;
+        private final String source;
+        private final String statement;
+        private final Map<String, String> parameters;
+        private final long elapsedNanos;
+        private final long rows;
+        private final String plan;
+
+        SlowQuery(long timestamp, String source, String statement, Map<String, String> parameters, long elapsedNanos,
+                  long rows, String plan) {
+            this.timestamp = timestamp;
+            this.source = source;
+            this.statement = statement;
+            this.parameters = parameters;
+            this.elapsedNanos = elapsedNanos;
+            this.rows = rows;
+            this.plan = plan;
+        }
+
+        /**
+         * @return the time at which the query completed, in milliseconds since the epoch
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getStatement() {
+            return statement;
+        }
+
+        /**
+         * @return the names of the parameters, with the types of their values
+         */
+        public Map<String, String> getParameters() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        public long getElapsedTime(TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return the number of rows or objects returned, or {@link Neo4jMetrics#UNKNOWN}
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * @return the captured plan, or <code>null</code>
+         */
+        public String getPlan() {
+            return plan;
+        }
+
+        @Override
+        public String toString() {
+            return "SlowQuery{" + source + ", " + getElapsedTime(TimeUnit.MILLISECONDS) + " ms, rows=" + rows + ": "
+                    + statement + " " + parameters + "}";
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A snapshot of the transactions recorded by {@link InMemoryNeo4jMetrics}.
+ *
+ * @author Tobias Hartmann
+ */
+public class TransactionStatistics {
+
+    private final long commitCount;
+    private final long rollbackCount;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long p99Nanos;
+
+    public TransactionStatistics(long commitCount, long rollbackCount, long totalNanos, long maxNanos, long p99Nanos) {
+        this.commitCount = commitCount;
+        this.rollbackCount = rollbackCount;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.p99Nanos = p99Nanos;
+    }
+
+    public long getCommitCount() {
+        return commitCount;
+    }
+
+    public long getRollbackCount() {
+        return rollbackCount;
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxTime(TimeUnit unit) {
+        return unit.convert(maxNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return an upper bound of the 99th percentile duration, accurate to within a factor of two
+     */
+    public long getP99Time(TimeUnit unit) {
+        return unit.convert(p99Nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionStatistics{commits=" + commitCount + ", rollbacks=" + rollbackCount
+                + ", p99Us=" + getP99Time(TimeUnit.MICROSECONDS) + ", maxUs=" + getMaxTime(TimeUnit.MICROSECONDS) + "}";
+    }
+}
@@ -19,6 +19,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Set;
+
 /**
  * @author Vince Bickers
  */
@@ -31,6 +33,14 @@ public interface GraphRepository<T> extends PagingAndSortingRepository<T, Long>
 
     T findOne(Long id, int depth);
 
+    /**
+     * Checks which of the given IDs belong to existing entities, without loading any of them.
+     *
+     * @param ids The IDs to check
+     * @return The IDs among those given for which an entity exists
+     */
+    Set<Long> existsAll(Iterable<Long> ids);
+
 
     Iterable<T> findAll();
 
@@ -54,4 +64,16 @@ public interface GraphRepository<T> extends PagingAndSortingRepository<T, Long>
 
     Page<T> findAll(Pageable pageable, int depth);
 
+
+    /**
+     * Loads the page of entities positioned after the keyset of the given request, which unlike paging by offset costs
+     * the same however deep the page is.
+     *
+     * @param request The requested page, typically {@link KeysetSlice#nextRequest()} of the previous page
+     * @return The page of entities
+     */
+    KeysetSlice<T> findAll(KeysetRequest request);
+
+    KeysetSlice<T> findAll(KeysetRequest request, int depth);
+
 }
@@ -16,15 +16,23 @@ package org.springframework.data.neo4j.repository;
 import org.neo4j.ogm.cypher.query.Pagination;
 import org.neo4j.ogm.cypher.query.SortOrder;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.repository.query.KeysetQuery;
+import org.springframework.data.neo4j.repository.support.EntityCache;
+import org.springframework.data.neo4j.repository.support.PageTotalCalculator;
 import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+import static org.springframework.data.neo4j.util.IterableUtils.partition;
 
 /**
  * @author Vince Bickers
@@ -35,36 +43,95 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     private static final int DEFAULT_QUERY_DEPTH = 1;
 
+    /**
+     * The default number of entities written to the database in a single request by the bulk operations.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     private final Class<T> clazz;
     private final Neo4jOperations neo4jOperations;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private PageTotalCalculator pageTotalCalculator = new PageTotalCalculator();
+    private EntityCache entityCache;
 
     public GraphRepositoryImpl(Class<T> clazz, Neo4jOperations neo4jOperations) {
         this.clazz = clazz;
         this.neo4jOperations = neo4jOperations;
     }
 
+    /**
+     * Sets the maximum number of entities sent to the database in a single request when saving or deleting
+     * an {@link Iterable} of entities.
+     *
+     * @param batchSize The batch size, which must be positive
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "The batch size must be positive");
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the {@link PageTotalCalculator} that works out the total number of elements of the pages returned by
+     * {@link #findAll(Pageable, int)}.
+     *
+     * @param pageTotalCalculator The calculator to use
+     */
+    public void setPageTotalCalculator(PageTotalCalculator pageTotalCalculator) {
+        Assert.notNull(pageTotalCalculator, "The page total calculator must not be null");
+        this.pageTotalCalculator = pageTotalCalculator;
+    }
+
+    /**
+     * Sets the second-level cache consulted by {@link #findOne(Long, int)} when it is enabled for the entity class of
+     * this repository. Entities found outside a transaction that may write are then shared, and must not be modified.
+     *
+     * @param entityCache The cache, or <code>null</code> to always load entities from the database
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
     @Override
     public <S extends T> S save(S entity) {
         neo4jOperations.save(entity);
+        pageTotalCalculator.evict(clazz);
         return entity;
     }
 
+    /*
+     * Each batch is handed to the OGM as a single collection, so it is mapped in one pass and written in one request,
+     * with the new nodes and relationships grouped by label and type into UNWIND statements.
+     */
     @Override
     public <S extends T> Iterable<S> save(Iterable<S> entities) {
-        for (S entity : entities) {
-            neo4jOperations.save(entity);
+        for (List<S> batch : partition(entities, batchSize)) {
+            neo4jOperations.save(batch);
         }
+        pageTotalCalculator.evict(clazz);
         return entities;
     }
 
     @Override
     public T findOne(Long id) {
-        return neo4jOperations.load(clazz, id);
+        return findOne(id, DEFAULT_QUERY_DEPTH);
     }
 
     @Override
     public boolean exists(Long id) {
-        return findOne(id) != null;
+        return neo4jOperations.exists(clazz, id);
+    }
+
+    @Override
+    public Set<Long> existsAll(Iterable<Long> ids) {
+        Set<Long> existing = new HashSet<>();
+        for (List<Long> batch : partition(ids, batchSize)) {
+            existing.addAll(neo4jOperations.existingIds(clazz, batch));
+        }
+        return existing;
     }
 
     @Override
@@ -74,44 +141,71 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
 
     @Override
     public void delete(Long id) {
-        Object o = findOne(id);
-        if (o != null) {
-            neo4jOperations.delete(o);
-        }
+        neo4jOperations.deleteAll(clazz, Collections.singletonList(id));
+        pageTotalCalculator.evict(clazz);
     }
 
     @Override
     public void delete(T t) {
         neo4jOperations.delete(t);
+        pageTotalCalculator.evict(clazz);
     }
 
+    /*
+     * Entities that have never been saved have nothing to delete, so only the graph ids of persisted ones are collected.
+     */
     @Override
     public void delete(Iterable<? extends T> ts) {
+        List<Long> ids = new ArrayList<>();
         for (T t : ts) {
-            neo4jOperations.delete(t);
+            Long id = neo4jOperations.resolveGraphIdFor(t);
+            if (id != null) {
+                ids.add(id);
+            }
         }
+        for (List<Long> batch : partition(ids, batchSize)) {
+            neo4jOperations.deleteAll(clazz, batch);
+        }
+        pageTotalCalculator.evict(clazz);
     }
 
     @Override
     public void deleteAll() {
         neo4jOperations.deleteAll(clazz);
+        pageTotalCalculator.evict(clazz);
+        if (entityCache != null) {
+            entityCache.invalidateAll(clazz);
+        }
     }
 
     @Override
     public <S extends T> S save(S s, int depth) {
         neo4jOperations.save(s, depth);
+        pageTotalCalculator.evict(clazz);
         return s;
     }
 
     @Override
     public <S extends T> Iterable<S> save(Iterable<S> ses, int depth) {
-        neo4jOperations.save(ses, depth);
+        for (List<S> batch : partition(ses, batchSize)) {
+            neo4jOperations.save(batch, depth);
+        }
+        pageTotalCalculator.evict(clazz);
         return ses;
     }
 
     @Override
     public T findOne(Long id, int depth) {
-        return neo4jOperations.load(clazz, id, depth);
+        if (entityCache == null || !entityCache.isEnabled(clazz)) {
+            return neo4jOperations.load(clazz, id, depth);
+        }
+        T entity = entityCache.get(clazz, id, depth);
+        if (entity == null) {
+            long generation = entityCache.generation(clazz);
+            entity = neo4jOperations.load(clazz, id, depth);
+            entityCache.put(clazz, id, depth, entity, generation);
+        }
+        return entity;
     }
 
     // findAll and variants
@@ -163,7 +257,23 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
     @Override
     public Page<T> findAll(Pageable pageable, int depth) {
         Collection<T> data = neo4jOperations.loadAll(clazz, convert(pageable.getSort()), new Pagination(pageable.getPageNumber(), pageable.getPageSize()), depth);
-        return updatePage(pageable, new ArrayList<T>(data));
+        // the total doesn't depend on the sort order, so a single count per entity type is cached
+        return pageTotalCalculator.toPage(new ArrayList<T>(data), pageable, clazz, new PageTotalCalculator.CountCallback() {
+            @Override
+            public long count() {
+                return neo4jOperations.count(clazz);
+            }
+        });
+    }
+
+    @Override
+    public KeysetSlice<T> findAll(KeysetRequest request) {
+        return findAll(request, DEFAULT_QUERY_DEPTH);
+    }
+
+    @Override
+    public KeysetSlice<T> findAll(KeysetRequest request, int depth) {
+        return new KeysetQuery<>(clazz, neo4jOperations).execute(request, depth);
     }
 
     /*
@@ -184,19 +294,4 @@ public class GraphRepositoryImpl<T> implements GraphRepository<T> {
         }
         return sortOrder;
     }
-
-    /*
-     * This is a cheap trick to estimate the total number of objects without actually knowing the real value.
-     * Essentially, if the result size is the same as the page size, we assume more data can be fetched, so
-     * we set the expected total to the current total retrieved so far + the current page size. As soon as the
-     * result size is less than the page size, we know there are no more, so we set the total to the number
-     * retrieved so far. This will ensure that page.next() returns false.
-     */
-    private Page<T> updatePage(Pageable pageable, List<T> results) {
-        int pageSize = pageable.getPageSize();
-        int pageOffset = pageable.getOffset();
-        int total = pageOffset + results.size() + (results.size() == pageSize ? pageSize : 0);
-
-        return new PageImpl<T>(results, pageable, total);
-    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Requests a page of entities positioned after a given entity (the keyset) rather than at an offset.  The query seeks
+ * directly to the position using the values of the sort properties and the graph ID of the last entity of the previous
+ * page, so every page costs the same no matter how deep into the results it is.
+ * <p>
+ * Entities are ordered by the given {@link Sort} and then by graph ID, which makes the order total.  Sort properties are
+ * expected to be present on every entity, since entities with a <code>null</code> sort value cannot be positioned.
+ * </p>
+ * The first request is created with {@link #KeysetRequest(int, Sort)} and the following ones are obtained from
+ * {@link KeysetSlice#nextRequest()}.  Requests are immutable and serializable so they can be handed to clients as cursors.
+ *
+ * @author Tobias Hartmann
+ */
+public class KeysetRequest implements Serializable {
+
+    private static final long serialVersionUID = -3487052731539474093L;
+
+    private final int size;
+    private final Sort sort;
+    private final List<Object> lastValues;
+    private final Long lastId;
+
+    /**
+     * Requests the first page, ordered by graph ID.
+     *
+     * @param size The maximum number of entities to return
+     */
+    public KeysetRequest(int size) {
+        this(size, null);
+    }
+
+    /**
+     * Requests the first page.
+     *
+     * @param size The maximum number of entities to return
+     * @param sort The order of the entities, may be <code>null</code>
+     */
+    public KeysetRequest(int size, Sort sort) {
+        this(size, sort, Collections.emptyList(), null);
+    }
+
+    /**
+     * Requests the page that follows the given entity.
+     *
+     * @param size       The maximum number of entities to return
+     * @param sort       The order of the entities, may be <code>null</code>
+     * @param lastValues The values of the sort properties of the last entity of the previous page, in sort order
+     * @param lastId     The graph ID of the last entity of the previous page
+     */
+    public KeysetRequest(int size, Sort sort, List<?> lastValues, Long lastId) {
+        Assert.isTrue(size > 0, "The page size must be positive");
+        this.size = size;
+        this.sort = sort;
+        this.lastValues = Collections.unmodifiableList(new ArrayList<>(lastValues));
+        this.lastId = lastId;
+        if (lastId != null) {
+            Assert.isTrue(this.lastValues.size() == getOrders().size(), "A value is required for each sort property");
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public List<Object> getLastValues() {
+        return lastValues;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * @return <code>true</code> if this requests the first page
+     */
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    /**
+     * @return The orders of the sort, never <code>null</code>
+     */
+    public List<Sort.Order> getOrders() {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A page of entities returned for a {@link KeysetRequest}.  Unlike a {@link org.springframework.data.domain.Page} it
+ * doesn't know the total number of entities, only whether there are more to come.
+ *
+ * @author Tobias Hartmann
+ */
+public class KeysetSlice<T> implements Iterable<T> {
+
+    private final List<T> content;
+    private final KeysetRequest request;
+    private final KeysetRequest nextRequest;
+
+    /**
+     * @param content     The entities of this page
+     * @param request     The request for this page
+     * @param nextRequest The request for the following page or <code>null</code> if this is the last one
+     */
+    public KeysetSlice(List<T> content, KeysetRequest request, KeysetRequest nextRequest) {
+        this.content = Collections.unmodifiableList(content);
+        this.request = request;
+        this.nextRequest = nextRequest;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public KeysetRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * @return <code>true</code> if there are more entities after this page
+     */
+    public boolean hasNext() {
+        return nextRequest != null;
+    }
+
+    /**
+     * @return The request for the following page or <code>null</code> if this is the last one
+     */
+    public KeysetRequest nextRequest() {
+        return nextRequest;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * The ways in which the total number of elements of a {@link Page} returned by a repository can be worked out.
+ *
+ * @author Tobias Hartmann
+ */
+public enum PagingStrategy {
+
+    /**
+     * Estimates the total from the size of the current page without counting.  If the page is full, one more page is
+     * assumed to exist, so the total is only exact on the last page.  This is the default.
+     */
+    ESTIMATE,
+
+    /**
+     * Counts the total with a separate query, unless it can be worked out from a first or last page that is not full.
+     */
+    EXACT,
+
+    /**
+     * As {@link #EXACT}, but keeps each count for a configurable time so that requests for further pages reuse it.
+     * Counts for an entity type are discarded as soon as the repository saves or deletes entities of that type.
+     */
+    CACHED
+}
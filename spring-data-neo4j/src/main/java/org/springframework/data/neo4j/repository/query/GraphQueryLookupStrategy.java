@@ -14,6 +14,11 @@
 package org.springframework.data.neo4j.repository.query;
 
 import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.repository.support.PageTotalCalculator;
+import org.springframework.data.neo4j.repository.support.QueryResultCache;
+import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.NamedQueries;
 import org.springframework.data.repository.core.RepositoryMetadata;
@@ -30,9 +35,42 @@ import java.lang.reflect.Method;
 public class GraphQueryLookupStrategy implements QueryLookupStrategy {
 
     private final Session session;
+    private final PageTotalCalculator pageTotalCalculator;
+    private final QueryResultCache queryResultCache;
+    private final Neo4jMetrics metrics;
+    private final SlowQueryLog slowQueryLog;
+    private final Neo4jOperations neo4jOperations;
 
     public GraphQueryLookupStrategy(Session session) {
+        this(session, new PageTotalCalculator());
+    }
+
+    public GraphQueryLookupStrategy(Session session, PageTotalCalculator pageTotalCalculator) {
+        this(session, pageTotalCalculator, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache) {
+        this(session, pageTotalCalculator, queryResultCache, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache,
+            Neo4jMetrics metrics) {
+        this(session, pageTotalCalculator, queryResultCache, metrics, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache,
+            Neo4jMetrics metrics, SlowQueryLog slowQueryLog) {
+        this(session, pageTotalCalculator, queryResultCache, metrics, slowQueryLog, null);
+    }
+
+    public GraphQueryLookupStrategy(Session session, PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache,
+            Neo4jMetrics metrics, SlowQueryLog slowQueryLog, Neo4jOperations neo4jOperations) {
         this.session = session;
+        this.pageTotalCalculator = pageTotalCalculator;
+        this.queryResultCache = queryResultCache;
+        this.metrics = metrics;
+        this.slowQueryLog = slowQueryLog;
+        this.neo4jOperations = neo4jOperations;
     }
     
     /* 
@@ -42,6 +80,7 @@ public class GraphQueryLookupStrategy implements QueryLookupStrategy {
     @Override
     public RepositoryQuery resolveQuery(Method method, RepositoryMetadata metadata, ProjectionFactory factory,
         NamedQueries namedQueries) {
-        return new GraphQueryMethod(method, metadata, factory, session).createQuery();
+        return new GraphQueryMethod(method, metadata, factory, session, pageTotalCalculator, queryResultCache, metrics, slowQueryLog,
+                neo4jOperations).createQuery();
     }
 }
@@ -18,12 +18,20 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.util.concurrent.Future;
 
 import org.neo4j.ogm.session.Session;
 import org.springframework.data.neo4j.annotation.Depth;
 import org.springframework.data.neo4j.annotation.Query;
 import org.springframework.data.neo4j.annotation.QueryResult;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
+import org.springframework.data.neo4j.repository.support.PageTotalCalculator;
+import org.springframework.data.neo4j.repository.support.QueryResultCache;
 import org.springframework.data.neo4j.repository.query.derived.DerivedGraphRepositoryQuery;
+import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.data.projection.ProjectionFactory;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.QueryMethod;
@@ -41,18 +49,66 @@ public class GraphQueryMethod extends QueryMethod {
     private final Query queryAnnotation;
     private final Integer queryDepthParamIndex;
     private final Integer queryDepth;
+    private final Integer keysetRequestParamIndex;
+    private final PageTotalCalculator pageTotalCalculator;
+    private final QueryResultCache queryResultCache;
+    private final Neo4jMetrics metrics;
+    private final SlowQueryLog slowQueryLog;
+    private final Neo4jOperations neo4jOperations;
+    private final String repositoryName;
+    private final ParameterBinder parameterBinder;
     private boolean staticDepth;
 
     public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session) {
+        this(method, metadata, factory, session, new PageTotalCalculator());
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            PageTotalCalculator pageTotalCalculator) {
+        this(method, metadata, factory, session, pageTotalCalculator, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache) {
+        this(method, metadata, factory, session, pageTotalCalculator, queryResultCache, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache, Neo4jMetrics metrics) {
+        this(method, metadata, factory, session, pageTotalCalculator, queryResultCache, metrics, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache, Neo4jMetrics metrics,
+            SlowQueryLog slowQueryLog) {
+        this(method, metadata, factory, session, pageTotalCalculator, queryResultCache, metrics, slowQueryLog, null);
+    }
+
+    public GraphQueryMethod(Method method, RepositoryMetadata metadata, ProjectionFactory factory, Session session,
+            PageTotalCalculator pageTotalCalculator, QueryResultCache queryResultCache, Neo4jMetrics metrics,
+            SlowQueryLog slowQueryLog, Neo4jOperations neo4jOperations) {
         super(method, metadata, factory);
         this.method = method;
         this.session = session;
+        this.pageTotalCalculator = pageTotalCalculator;
+        this.queryResultCache = queryResultCache;
+        this.metrics = metrics;
+        this.slowQueryLog = slowQueryLog;
+        this.neo4jOperations = neo4jOperations;
+        this.repositoryName = metadata.getRepositoryInterface().getSimpleName();
         this.queryAnnotation = method.getAnnotation(Query.class);
         this.queryDepthParamIndex = getQueryDepthParamIndex(method);
         this.queryDepth = getStaticQueryDepth(method);
+        this.keysetRequestParamIndex = getKeysetRequestParamIndex(method);
+        this.parameterBinder = new ParameterBinder(getParameters());
         if (queryDepth!=null && queryDepthParamIndex!=null) {
             throw new IllegalArgumentException(method.getName() + " cannot have both a method @Depth and a parameter @Depth");
         }
+        // the OGM maps entities into the session all at once, so only @QueryResult rows can be mapped as they're streamed
+        if (isStreamQuery() && !resolveConcreteReturnType().isAnnotationPresent(QueryResult.class)) {
+            throw new IllegalArgumentException(method.getName() + " returns a Stream, which is only supported for "
+                    + "@QueryResult types: return an Iterable to load entities");
+        }
 
     }
 
@@ -60,6 +116,57 @@ public class GraphQueryMethod extends QueryMethod {
         return queryAnnotation.value();
     }
 
+    /**
+     * @return The Cypher query counting the results of a paged <code>&#064;Query</code>, or <code>null</code> if none is declared
+     */
+    public String getCountQuery() {
+        String countQuery = queryAnnotation.countQuery();
+        return countQuery.isEmpty() ? null : countQuery;
+    }
+
+    public PageTotalCalculator getPageTotalCalculator() {
+        return pageTotalCalculator;
+    }
+
+    /**
+     * @return The cache holding the results of <code>&#064;CachedQuery</code> methods, or <code>null</code> if there is none
+     */
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * @return The recorder of the executions of this query method, or <code>null</code> if they aren't recorded
+     */
+    public Neo4jMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The log of the slow executions of this query method, or <code>null</code> if they aren't logged
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * @return The operations of the repository declaring this query method, or <code>null</code> if it has none
+     */
+    public Neo4jOperations getNeo4jOperations() {
+        return neo4jOperations;
+    }
+
+    /**
+     * @return The simple name of the repository interface declaring this query method
+     */
+    public String getRepositoryName() {
+        return repositoryName;
+    }
+
+    ParameterBinder getParameterBinder() {
+        return parameterBinder;
+    }
+
     public Method getMethod() {
         return method;
     }
@@ -74,10 +181,10 @@ public class GraphQueryMethod extends QueryMethod {
      *         should be mapped
      */
     public Class<?> resolveConcreteReturnType() {
-        Class<?> type = this.method.getReturnType();
-        Type genericType = this.method.getGenericReturnType();
+        Class<?> type = getUnwrappedReturnType();
+        Type genericType = getUnwrappedGenericReturnType();
 
-        if (Iterable.class.isAssignableFrom(type)) {
+        if (Iterable.class.isAssignableFrom(type) || isStreamQuery()) {
             if (genericType instanceof ParameterizedType) {
                 ParameterizedType returnType = (ParameterizedType) genericType;
                 Type componentType = returnType.getActualTypeArguments()[0];
@@ -96,6 +203,39 @@ public class GraphQueryMethod extends QueryMethod {
         return type;
     }
 
+    /**
+     * @return <code>true</code> if this query method returns a {@link Future}, typically to be executed
+     *         <code>&#064;Async</code>
+     */
+    public boolean isAsyncQuery() {
+        return Future.class.isAssignableFrom(method.getReturnType());
+    }
+
+    /**
+     * @return The return type of this query method, or the type of the value of the {@link Future} returned by an
+     *         asynchronous query method
+     */
+    public Class<?> getUnwrappedReturnType() {
+        Type genericType = getUnwrappedGenericReturnType();
+        if (genericType instanceof Class) {
+            return (Class<?>) genericType;
+        }
+        if (genericType instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) genericType).getRawType();
+        }
+        return Object.class;
+    }
+
+    private Type getUnwrappedGenericReturnType() {
+        Type genericType = method.getGenericReturnType();
+        if (isAsyncQuery()) {
+            return genericType instanceof ParameterizedType ?
+                    ((ParameterizedType) genericType).getActualTypeArguments()[0] :
+                    Object.class;
+        }
+        return genericType;
+    }
+
     public RepositoryQuery createQuery() {
         if (method.getAnnotation(Query.class) != null) {
             if (resolveConcreteReturnType().isAnnotationPresent(QueryResult.class)) {
@@ -119,6 +259,31 @@ public class GraphQueryMethod extends QueryMethod {
         return staticDepth;
     }
 
+    /**
+     * @return The index of the {@link KeysetRequest} parameter of a derived finder returning a {@link KeysetSlice},
+     *         or <code>null</code> if there isn't one
+     */
+    public Integer getKeysetRequestParamIndex() {
+        return keysetRequestParamIndex;
+    }
+
+    public boolean isKeysetQuery() {
+        return KeysetSlice.class.isAssignableFrom(getUnwrappedReturnType());
+    }
+
+    private Integer getKeysetRequestParamIndex(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (KeysetRequest.class.isAssignableFrom(parameterTypes[i])) {
+                return i;
+            }
+        }
+        if (KeysetSlice.class.isAssignableFrom(getUnwrappedReturnType())) {
+            throw new IllegalArgumentException(method.getName() + " returns a KeysetSlice and must have a KeysetRequest parameter");
+        }
+        return null;
+    }
+
     private Integer getQueryDepthParamIndex(Method method) {
         Annotation[][] annotations = method.getParameterAnnotations();
         for (int i = 0; i < annotations.length; i++) {
@@ -17,10 +17,33 @@ package org.springframework.data.neo4j.repository.query;
 import org.neo4j.ogm.model.QueryStatistics;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.annotation.CachedQuery;
+import org.springframework.data.neo4j.metrics.MetricsUtils;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.repository.PagingStrategy;
+import org.springframework.data.neo4j.repository.support.PageTotalCalculator;
+import org.springframework.data.neo4j.repository.support.QueryResultCache;
+import org.springframework.data.neo4j.util.IterableUtils;
 import org.springframework.data.repository.query.*;
+import org.springframework.data.util.StreamUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 
 /**
@@ -31,26 +54,47 @@ import java.util.Map;
  */
 public class GraphRepositoryQuery implements RepositoryQuery {
 
+    private static final String SKIP_PARAMETER = "sdnSkip";
+    private static final String LIMIT_PARAMETER = "sdnLimit";
+    private static final Pattern TRAILING_ORDER_BY = Pattern.compile("(?is)\\bORDER\\s+BY\\b(?:(?!\\b(?:WITH|RETURN)\\b).)*$");
+    private static final Pattern SORT_PROPERTY = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.([A-Za-z_][A-Za-z0-9_]*|`[^`]+`))?");
+
     private final GraphQueryMethod graphQueryMethod;
+    private final QueryResultCache.Region cacheRegion;
 
     protected final Session session;
 
     public GraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session) {
         this.graphQueryMethod = graphQueryMethod;
         this.session = session;
+        this.cacheRegion = createCacheRegion(graphQueryMethod);
     }
 
     @Override
     public final Object execute(Object[] parameters) {
-        Class<?> returnType = graphQueryMethod.getMethod().getReturnType();
+        long start = System.nanoTime();
+        Class<?> returnType = graphQueryMethod.getUnwrappedReturnType();
         Class<?> concreteType = graphQueryMethod.resolveConcreteReturnType();
 
-        Map<String, Object> params = resolveParams(parameters);
-        
         ParameterAccessor accessor = new ParametersParameterAccessor(graphQueryMethod.getParameters(), parameters);
         ResultProcessor processor = graphQueryMethod.getResultProcessor();
-        Object result = execute(returnType, concreteType, getQueryString(), params);
-        
+        Object result;
+        try {
+            flushPendingSaves();
+            Map<String, Object> params = resolveParams(parameters);
+            if (graphQueryMethod.isStreamQuery()) {
+                Iterator<?> results = stream(concreteType, getQueryString(), params);
+                record(start, results, concreteType, params);
+                result = StreamUtils.createStreamFromIterator(results);
+            } else if (graphQueryMethod.isPageQuery() && accessor.getPageable() != null) {
+                result = record(start, executePaged(returnType, concreteType, accessor.getPageable(), params), concreteType, params);
+            } else {
+                result = record(start, cachedExecute(returnType, concreteType, getQueryString(), params), concreteType, params);
+            }
+        } catch (RuntimeException e) {
+            throw failed(start, e);
+        }
+
         return Result.class.equals(returnType) ? result :
         	processor.withDynamicProjection(accessor).processResult(result);
     }
@@ -78,27 +122,142 @@ public class GraphRepositoryQuery implements RepositoryQuery {
         return session.queryForObject(returnType, cypherQuery, queryParams);
     }
 
-    private Map<String, Object> resolveParams(Object[] parameters) {
+    /*
+     * Results are cached as lists, which are copied for each caller so that they can't alter the cached ones.
+     */
+    private Object cachedExecute(final Class<?> returnType, final Class<?> concreteType, final String cypherQuery,
+            final Map<String, Object> queryParams) {
+        if (cacheRegion == null || returnType.equals(Void.class) || returnType.equals(void.class) || queryReturnsStatistics()) {
+            return execute(returnType, concreteType, cypherQuery, queryParams);
+        }
+        Object result = cacheRegion.get(Arrays.asList(cypherQuery, queryParams), new QueryResultCache.ResultCallback() {
+            @Override
+            public Object execute() {
+                Object result = GraphRepositoryQuery.this.execute(returnType, concreteType, cypherQuery, queryParams);
+                return result instanceof Iterable ? IterableUtils.toList((Iterable<?>) result) : result;
+            }
+        });
+        return result instanceof Collection ? new ArrayList<>((Collection<?>) result) : result;
+    }
+
+    private static QueryResultCache.Region createCacheRegion(GraphQueryMethod graphQueryMethod) {
+        CachedQuery cachedQuery = graphQueryMethod.getMethod().getAnnotation(CachedQuery.class);
+        QueryResultCache queryResultCache = graphQueryMethod.getQueryResultCache();
+        if (cachedQuery == null || queryResultCache == null || graphQueryMethod.isStreamQuery()) {
+            return null;
+        }
+        Set<String> labels = new HashSet<>(Arrays.asList(cachedQuery.labels()));
+        if (labels.isEmpty()) {
+            labels.addAll(QueryResultCache.labelsOf(graphQueryMethod.getEntityInformation().getJavaType()));
+        }
+        return queryResultCache.createRegion(labels, cachedQuery.ttl(), cachedQuery.maxSize());
+    }
+
+    /**
+     * Executes the query for a method returning a <code>java.util.stream.Stream</code>, whose elements should be mapped
+     * as they are consumed rather than up front.
+     * <p>
+     * Entities can't be streamed, as the OGM maps the whole result of a query into the session at once, so
+     * {@link GraphQueryMethod} rejects methods returning a stream of anything but <code>&#064;QueryResult</code> rows,
+     * which {@link QueryResultGraphRepositoryQuery} maps as they are consumed.
+     *
+     * @return An {@link Iterator} over the results of the query
+     */
+    protected Iterator<?> stream(Class<?> concreteType, String cypherQuery, Map<String, Object> queryParams) {
+        throw new UnsupportedOperationException("Only @QueryResult types can be streamed");
+    }
+
+    /*
+     * The page is selected by appending SKIP and LIMIT to the query, so the query itself must not contain them.  Nor may
+     * it end with ORDER BY if the pageable is sorted, as the sort is appended too.
+     */
+    private Page<?> executePaged(Class<?> returnType, Class<?> concreteType, Pageable pageable, final Map<String, Object> queryParams) {
+        final String countQuery = graphQueryMethod.getCountQuery();
+        if (pageable.getSort() != null && TRAILING_ORDER_BY.matcher(getQueryString()).find()) {
+            throw new InvalidDataAccessApiUsageException("Cannot sort the results of a @Query ending with ORDER BY by the "
+                    + "sort of the pageable, either remove ORDER BY from " + graphQueryMethod.getName()
+                    + " or page it with an unsorted pageable");
+        }
+
+        Map<String, Object> pageParams = new HashMap<>(queryParams);
+        pageParams.put(SKIP_PARAMETER, pageable.getOffset());
+        pageParams.put(LIMIT_PARAMETER, pageable.getPageSize());
+        String pagedQuery = getQueryString() + orderBy(pageable.getSort()) + " SKIP {" + SKIP_PARAMETER + "} LIMIT {" + LIMIT_PARAMETER + "}";
 
-        Map<String, Object> params = new HashMap<>();
-        Parameters<?, ?> methodParameters = graphQueryMethod.getParameters();
+        List<?> content = IterableUtils.toList((Iterable<?>) cachedExecute(returnType, concreteType, pagedQuery, pageParams));
 
-        for (int i = 0; i < parameters.length; i++) {
-            Parameter parameter = methodParameters.getParameter(i);
+        PageTotalCalculator calculator = graphQueryMethod.getPageTotalCalculator();
+        if (countQuery == null) {
+            return calculator.toPage(content, pageable, PagingStrategy.ESTIMATE, null, null);
+        }
 
-            //The parameter might be an entity, try to resolve its id
-            Object parameterValue = session.resolveGraphIdFor(parameters[i]);
-            if(parameterValue == null) { //Either not an entity or not persisted
-                parameterValue = parameters[i];
+        // declaring a count query asks for an exact total, so it isn't estimated even if that's the repository default
+        PagingStrategy strategy = calculator.getDefaultStrategy() == PagingStrategy.CACHED ? PagingStrategy.CACHED : PagingStrategy.EXACT;
+        Object countKey = Arrays.asList(graphQueryMethod.getEntityInformation().getJavaType(), countQuery, queryParams);
+        return calculator.toPage(content, pageable, strategy, countKey, new PageTotalCalculator.CountCallback() {
+            @Override
+            public long count() {
+                Map<String, Object> row = IterableUtils.getSingle(session.query(countQuery, queryParams, true).queryResults());
+                return ((Number) row.values().iterator().next()).longValue();
             }
+        });
+    }
 
-            if (parameter.isNamedParameter()) {
-                params.put(parameter.getName(), parameterValue);
-            } else {
-                params.put("" + i, parameterValue);
+    /*
+     * The properties of the sort are the identifiers or properties returned by the query, e.g. user.name, rather than
+     * properties of the domain type, since the query may return anything.
+     */
+    private static String orderBy(Sort sort) {
+        if (sort == null) {
+            return "";
+        }
+        StringBuilder orderBy = new StringBuilder();
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (!SORT_PROPERTY.matcher(property).matches()) {
+                throw new IllegalArgumentException("Cannot sort the results of a @Query by '" + property
+                        + "', sort by an identifier or property of the query instead, e.g. 'user.name'");
             }
+            orderBy.append(orderBy.length() == 0 ? " ORDER BY " : ", ")
+                    .append(order.isIgnoreCase() ? "lower(" + property + ")" : property)
+                    .append(order.isAscending() ? " ASC" : " DESC");
+        }
+        return orderBy.toString();
+    }
+
+    /*
+     * Streams are recorded once they are opened, as they are consumed later on.
+     */
+    private <T> T record(long start, T result, Class<?> concreteType, Map<String, Object> params) {
+        SlowQueryLog slowQueryLog = graphQueryMethod.getSlowQueryLog();
+        if (slowQueryLog != null) {
+            slowQueryLog.record(graphQueryMethod.getRepositoryName() + "." + graphQueryMethod.getName(), getQueryString(),
+                    params, System.nanoTime() - start, MetricsUtils.rows(result));
         }
-        return params;
+        Integer depth = graphQueryMethod.getQueryDepth();
+        return MetricsUtils.record(graphQueryMethod.getMetrics(), graphQueryMethod.getRepositoryName(), graphQueryMethod.getName(),
+                depth != null ? depth : Neo4jMetrics.UNKNOWN, start, result, MetricsUtils.isEntityType(concreteType));
+    }
+
+    private RuntimeException failed(long start, RuntimeException e) {
+        Integer depth = graphQueryMethod.getQueryDepth();
+        MetricsUtils.recordFailure(graphQueryMethod.getMetrics(), graphQueryMethod.getRepositoryName(), graphQueryMethod.getName(),
+                depth != null ? depth : Neo4jMetrics.UNKNOWN, start, e);
+        return e;
+    }
+
+    /*
+     * Saves deferred by a write-behind template are pushed first, so that the query sees them and entity parameters
+     * have their ids.
+     */
+    private static void flushPendingSaves() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationUtils.triggerFlush();
+        }
+    }
+
+    private Map<String, Object> resolveParams(Object[] parameters) {
+        return graphQueryMethod.getParameterBinder().bind(parameters, session);
     }
 
     @Override
@@ -111,7 +270,7 @@ public class GraphRepositoryQuery implements RepositoryQuery {
     }
 
     private boolean queryReturnsStatistics() {
-        Class returnType = graphQueryMethod.getMethod().getReturnType();
+        Class returnType = graphQueryMethod.getUnwrappedReturnType();
         return QueryStatistics.class.isAssignableFrom(returnType) || Result.class.isAssignableFrom(returnType);
     }
 
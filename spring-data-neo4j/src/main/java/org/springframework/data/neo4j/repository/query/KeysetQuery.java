@@ -0,0 +1,157 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.neo4j.util.GraphEntityUtils.pattern;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.propertyName;
+
+/**
+ * Executes {@link KeysetRequest}s for an entity type.  The page is selected with a Cypher query returning only the graph IDs
+ * and sort values of the matching entities, which are then loaded to the requested depth.
+ *
+ * @author Tobias Hartmann
+ */
+public class KeysetQuery<T> {
+
+    /**
+     * The identifier the entity is bound to, which criteria passed to {@link #execute(KeysetRequest, String, Map, int)} refer to.
+     */
+    public static final String ENTITY = "n";
+
+    private final Class<T> type;
+    private final Neo4jOperations neo4jOperations;
+
+    public KeysetQuery(Class<T> type, Neo4jOperations neo4jOperations) {
+        this.type = type;
+        this.neo4jOperations = neo4jOperations;
+    }
+
+    public KeysetSlice<T> execute(KeysetRequest request, int depth) {
+        return execute(request, null, new HashMap<String, Object>(), depth);
+    }
+
+    /**
+     * Loads the page of entities matching the given criteria.
+     *
+     * @param request    The requested page
+     * @param criteria   A Cypher predicate on {@link #ENTITY} restricting the entities, or <code>null</code> for all entities
+     * @param parameters The parameters of the criteria
+     * @param depth      The depth to which the entities are loaded
+     * @return The page, never <code>null</code>
+     */
+    public KeysetSlice<T> execute(KeysetRequest request, String criteria, Map<String, Object> parameters, int depth) {
+        List<Sort.Order> orders = request.getOrders();
+        Map<String, Object> params = new HashMap<>(parameters);
+
+        StringBuilder cypher = new StringBuilder("MATCH ").append(pattern(type, ENTITY));
+        List<String> predicates = new ArrayList<>();
+        if (criteria != null) {
+            predicates.add("(" + criteria + ")");
+        }
+        if (!request.isFirst()) {
+            predicates.add(seek(orders, request, params));
+        }
+        for (int i = 0; i < predicates.size(); i++) {
+            cypher.append(i == 0 ? " WHERE " : " AND ").append(predicates.get(i));
+        }
+
+        cypher.append(" RETURN ID(").append(ENTITY).append(") AS id");
+        for (int i = 0; i < orders.size(); i++) {
+            cypher.append(", ").append(property(orders.get(i))).append(" AS k").append(i);
+        }
+        cypher.append(" ORDER BY ");
+        for (Sort.Order order : orders) {
+            cypher.append(property(order)).append(order.isAscending() ? " ASC, " : " DESC, ");
+        }
+        cypher.append("ID(").append(ENTITY).append(") ASC LIMIT {keysetLimit}");
+        // one more than requested tells whether there is a next page
+        params.put("keysetLimit", request.getSize() + 1);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map<String, Object> row : neo4jOperations.query(cypher.toString(), params, true).queryResults()) {
+            rows.add(row);
+        }
+
+        boolean hasNext = rows.size() > request.getSize();
+        List<Map<String, Object>> pageRows = hasNext ? rows.subList(0, request.getSize()) : rows;
+        List<Long> ids = new ArrayList<>(pageRows.size());
+        for (Map<String, Object> row : pageRows) {
+            ids.add(((Number) row.get("id")).longValue());
+        }
+
+        KeysetRequest nextRequest = null;
+        if (hasNext) {
+            Map<String, Object> last = pageRows.get(pageRows.size() - 1);
+            List<Object> lastValues = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                lastValues.add(last.get("k" + i));
+            }
+            nextRequest = new KeysetRequest(request.getSize(), request.getSort(), lastValues, ids.get(ids.size() - 1));
+        }
+        return new KeysetSlice<>(load(ids, depth), request, nextRequest);
+    }
+
+    /*
+     * Builds the predicate selecting the entities that come after the keyset, e.g. for a sort on a ascending and b descending:
+     * (n.a > {k0}) OR (n.a = {k0} AND n.b < {k1}) OR (n.a = {k0} AND n.b = {k1} AND ID(n) > {keysetId})
+     */
+    private String seek(List<Sort.Order> orders, KeysetRequest request, Map<String, Object> params) {
+        StringBuilder predicate = new StringBuilder("(");
+        StringBuilder equalities = new StringBuilder();
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            params.put("keyset" + i, request.getLastValues().get(i));
+            predicate.append("(").append(equalities).append(property(order))
+                    .append(order.isAscending() ? " > " : " < ").append("{keyset").append(i).append("}) OR ");
+            equalities.append(property(order)).append(" = {keyset").append(i).append("} AND ");
+        }
+        params.put("keysetId", request.getLastId());
+        return predicate.append("(").append(equalities).append("ID(").append(ENTITY).append(") > {keysetId}))").toString();
+    }
+
+    private String property(Sort.Order order) {
+        return ENTITY + ".`" + propertyName(type, order.getProperty()) + "`";
+    }
+
+    /*
+     * Loading by IDs doesn't keep their order, so the entities are put back in the order of the page.
+     */
+    private List<T> load(List<Long> ids, int depth) {
+        List<T> content = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return content;
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : neo4jOperations.loadAll(type, ids, depth)) {
+            byId.put(neo4jOperations.resolveGraphIdFor(entity), entity);
+        }
+        for (Long id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                content.add(entity);
+            }
+        }
+        return content;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.query;
+
+import org.neo4j.ogm.session.Session;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.Parameters;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binds the arguments of a <code>&#064;Query</code> method to the parameters of its Cypher query.  Everything that
+ * depends only on the method, i.e. the parameter names and which arguments could be entities whose graph ID should be
+ * sent instead, is worked out once when the binder is created.
+ *
+ * @author Tobias Hartmann
+ */
+class ParameterBinder {
+
+    private final String[] names;
+    private final boolean[] mayBeEntity;
+
+    ParameterBinder(Parameters<?, ?> methodParameters) {
+        int count = methodParameters.getNumberOfParameters();
+        this.names = new String[count];
+        this.mayBeEntity = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            Parameter parameter = methodParameters.getParameter(i);
+            if (parameter.isSpecialParameter()) { // Pageable and Sort aren't query parameters
+                continue;
+            }
+            names[i] = (parameter.isNamedParameter() ? parameter.getName() : String.valueOf(i)).intern();
+            mayBeEntity[i] = mayBeEntity(parameter.getType());
+        }
+    }
+
+    /**
+     * @param arguments The arguments the method was invoked with
+     * @param session   The session resolving the graph IDs of entity arguments
+     * @return The parameters of the Cypher query
+     */
+    Map<String, Object> bind(Object[] arguments, Session session) {
+        Map<String, Object> params = new HashMap<>((int) (arguments.length / 0.75f) + 1);
+
+        for (int i = 0; i < arguments.length; i++) {
+            if (names[i] == null) {
+                continue;
+            }
+
+            Object parameterValue = arguments[i];
+            if (mayBeEntity[i] && parameterValue != null) {
+                //The parameter might be an entity, try to resolve its id
+                Long graphId = session.resolveGraphIdFor(parameterValue);
+                if (graphId != null) {
+                    parameterValue = graphId;
+                }
+            }
+            params.put(names[i], parameterValue);
+        }
+        return params;
+    }
+
+    /*
+     * Values, collections, arrays and maps are never entities, whereas anything else, including Object, might be one.
+     */
+    private static boolean mayBeEntity(Class<?> type) {
+        return !(BeanUtils.isSimpleValueType(type) || Date.class.isAssignableFrom(type) || type.isArray()
+                || Iterable.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type));
+    }
+}
@@ -18,6 +18,7 @@ import static java.lang.reflect.Proxy.newProxyInstance;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.neo4j.ogm.MetaData;
@@ -30,11 +31,17 @@ import org.neo4j.ogm.transaction.Transaction;
 
 /**
  * Specialisation of {@link GraphRepositoryQuery} that handles mapping to objects annotated with <code>&#064;QueryResult</code>.
+ * <p>
+ * Only the mapping metadata is kept between executions. There's no mapping plan cached per class: each execution maps
+ * its rows with a new OGM entity mapper, which works out the fields and setters to use for itself.
+ * </p>
  *
  * @author Adam George
  */
 public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
 
+    private volatile MetaData metaData;
+
     /**
      * Constructs a new {@link QueryResultGraphRepositoryQuery} based on the given arguments.
      *
@@ -47,9 +54,10 @@ public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
 
     @Override
     protected Object execute(Class<?> returnType, final Class<?> concreteReturnType, String cypherQuery, Map<String, Object> queryParams) {
-        Collection<Object> resultObjects = concreteReturnType.isInterface()
-                ? mapToProxy(concreteReturnType, cypherQuery, queryParams)
-                : mapToConcreteType(concreteReturnType, cypherQuery, queryParams);
+        Collection<Object> resultObjects = new ArrayList<>();
+        for (Iterator<Object> results = stream(concreteReturnType, cypherQuery, queryParams); results.hasNext(); ) {
+            resultObjects.add(results.next());
+        }
 
         if (Iterable.class.isAssignableFrom(returnType)) {
             return resultObjects;
@@ -57,33 +65,83 @@ public class QueryResultGraphRepositoryQuery extends GraphRepositoryQuery {
         return resultObjects.isEmpty() ? null : resultObjects.iterator().next();
     }
 
-    private Collection<Object> mapToConcreteType(final Class<?> targetType, final String cypherQuery, final Map<String, Object> queryParams) {
+    /*
+     * Each row is mapped when it is reached, so that streamed results never need to be held as mapped objects all at once.
+     */
+    @Override
+    protected Iterator<Object> stream(Class<?> concreteReturnType, String cypherQuery, Map<String, Object> queryParams) {
+        final Iterator<Map<String, Object>> rows = this.session.query(cypherQuery, queryParams).queryResults().iterator();
+        final RowMapper mapper = concreteReturnType.isInterface() ? proxyMapper(concreteReturnType) : concreteTypeMapper(concreteReturnType);
 
+        return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
 
+            @Override
+            public Object next() {
+                return mapper.map(rows.next());
+            }
 
-        return this.session.doInTransaction(new GraphCallback<Collection<Object>>() {
             @Override
-            public Collection<Object> apply(Request requestHandler, Transaction transaction, MetaData metaData) {
-                Collection<Object> toReturn = new ArrayList<>();
-                SingleUseEntityMapper entityMapper = new SingleUseEntityMapper(metaData, new EntityFactory(metaData));
-                Iterable<Map<String,Object>> results = session.query(cypherQuery, queryParams);
-                for (Map<String,Object> result : results) {
-                  toReturn.add(entityMapper.map(targetType, result));
-                }
-                return toReturn;
+            public void remove() {
+                throw new UnsupportedOperationException("Query results cannot be removed");
             }
-        });
+        };
     }
 
-    private Collection<Object> mapToProxy(Class<?> targetType, String cypherQuery, Map<String, Object> queryParams) {
-        Iterable<Map<String, Object>> queryResults = this.session.query(cypherQuery, queryParams);
+    /*
+     * The OGM's entity factory caches what it resolves in plain maps, so it can't be shared between threads.  A mapper is
+     * cheap next to the query, so each execution builds its own.
+     */
+    private RowMapper concreteTypeMapper(final Class<?> targetType) {
+        MetaData metaData = metaData();
+        final SingleUseEntityMapper entityMapper = new SingleUseEntityMapper(metaData, new EntityFactory(metaData));
 
-        Collection<Object> resultObjects = new ArrayList<>();
-        Class<?>[] interfaces = new Class<?>[] {targetType};
-        for (Map<String, Object> map : queryResults) {
-            resultObjects.add(newProxyInstance(targetType.getClassLoader(), interfaces, new QueryResultProxy(map)));
+        return new RowMapper() {
+            @Override
+            public Object map(Map<String, Object> row) {
+                return entityMapper.map(targetType, row);
+            }
+        };
+    }
+
+    /*
+     * The mapping metadata never changes, so it's only fetched on the first execution. The session just lends it out to
+     * a callback, which opens a transaction if there isn't one yet, so later executions don't pay for that either.
+     */
+    private MetaData metaData() {
+        MetaData metaData = this.metaData;
+        if (metaData == null) {
+            metaData = this.session.doInTransaction(new GraphCallback<MetaData>() {
+                @Override
+                public MetaData apply(Request requestHandler, Transaction transaction, MetaData metaData) {
+                    return metaData;
+                }
+            });
+            this.metaData = metaData;
         }
-        return resultObjects;
+        return metaData;
+    }
+
+    private RowMapper proxyMapper(final Class<?> targetType) {
+        final Class<?>[] interfaces = new Class<?>[] {targetType};
+
+        return new RowMapper() {
+            @Override
+            public Object map(Map<String, Object> row) {
+                return newProxyInstance(targetType.getClassLoader(), interfaces, new QueryResultProxy(row));
+            }
+        };
+    }
+
+    /**
+     * Maps a row of query results to an instance of the <code>&#064;QueryResult</code> type.
+     */
+    private interface RowMapper {
+
+        Object map(Map<String, Object> row);
     }
 
 }
@@ -21,12 +21,18 @@ import org.slf4j.LoggerFactory;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Method {@link InvocationHandler} used for proxy objects that implement arbitrary interfaces annotated with
  * <code>&#064;QueryResult</code>.
+ * <p>
+ * Which column each method reads is worked out once per method and shared by all proxies, so calling a getter is a map
+ * lookup followed by the type coercion of the value.
+ * </p>
  *
  * @author Adam George
  */
@@ -36,6 +42,8 @@ class QueryResultProxy implements InvocationHandler {
 
     private static final Pattern beanGetterPattern = Pattern.compile("^(is|get)(\\w+)");
 
+    private static final ConcurrentMap<Method, Accessor> accessors = new ConcurrentHashMap<>();
+
     private final Map<String, ?> data;
 
     QueryResultProxy(Map<String, ?> queryResults) {
@@ -44,6 +52,18 @@ class QueryResultProxy implements InvocationHandler {
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Accessor accessor = accessors.get(method);
+        if (accessor == null) {
+            accessor = createAccessor(method);
+            Accessor existing = accessors.putIfAbsent(method, accessor);
+            if (existing != null) {
+                accessor = existing;
+            }
+        }
+        return Utils.coerceTypes(accessor.returnType, data.get(accessor.key));
+    }
+
+    private static Accessor createAccessor(Method method) {
         if (isNotTraditionalGetter(method)) {
             log.warn("QueryResult interface method " + method.getName()
                     + " doesn't appear to be a getter and therefore may not return the correct result.");
@@ -51,22 +71,36 @@ class QueryResultProxy implements InvocationHandler {
 
         if (method.isAnnotationPresent(Property.class)) {
             Property annotation = method.getAnnotation(Property.class);
-            return Utils.coerceTypes(method.getReturnType(), data.get(annotation.name()));
+            return new Accessor(annotation.name(), method.getReturnType());
         }
 
         Matcher matcher = beanGetterPattern.matcher(method.getName());
         if (matcher.matches()) {
             String propertyKey = matcher.group(2);
             propertyKey = propertyKey.substring(0, 1).toLowerCase().concat(propertyKey.substring(1));
-            return Utils.coerceTypes(method.getReturnType(),data.get(propertyKey));
+            return new Accessor(propertyKey, method.getReturnType());
         }
 
-        return Utils.coerceTypes(method.getReturnType(), data.get(method.getName()));
+        return new Accessor(method.getName(), method.getReturnType());
     }
 
-    private boolean isNotTraditionalGetter(Method method) {
+    private static boolean isNotTraditionalGetter(Method method) {
         return method.getParameterTypes().length != 0 || Void.class.equals(method.getReturnType())
                 || (!method.getName().startsWith("get") && !method.getName().startsWith("is"));
     }
 
+    /**
+     * The column of the query results a method reads and the type its value is coerced to.
+     */
+    private static final class Accessor {
+
+        private final String key;
+        private final Class<?> returnType;
+
+        Accessor(String key, Class<?> returnType) {
+            this.key = key;
+            this.returnType = returnType;
+        }
+    }
+
 }
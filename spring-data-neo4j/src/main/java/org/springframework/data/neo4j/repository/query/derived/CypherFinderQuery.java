@@ -18,6 +18,9 @@ import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
 import org.springframework.data.repository.query.parser.Part;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A {@link DerivedQueryDefinition} that builds a Cypher query.
  *
@@ -27,7 +30,7 @@ public class CypherFinderQuery implements DerivedQueryDefinition {
 
 	private Class<?> entityType;
 	private Part basePart;
-	private Filters parameters = new Filters();
+	private List<FilterDefinition> filterDefinitions = new ArrayList<>();
 	private int paramPosition = 0;
 
 	public CypherFinderQuery(Class<?> entityType, Part basePart) {
@@ -40,33 +43,25 @@ public class CypherFinderQuery implements DerivedQueryDefinition {
 		return basePart;
 	}
 
+	/*
+	 * The OGM sets values on and resolves the filters it is given, so every call gets its own copy built from the
+	 * definitions parsed when the query was created.
+	 */
 	@Override
 	public Filters getFilters() {
+		Filters parameters = new Filters();
+		for (FilterDefinition filterDefinition : filterDefinitions) {
+			parameters.add(filterDefinition.toFilter());
+		}
 		return parameters;
 	}
 
 	@Override
 	public void addPart(Part part, BooleanOperator booleanOperator) {
-		String property = part.getProperty().getSegment();
-		Filter parameter = new Filter();
-		parameter.setPropertyPosition(paramPosition++);
-		parameter.setPropertyName(property);
-		parameter.setOwnerEntityType(entityType);
-		parameter.setComparisonOperator(convertToComparisonOperator(part.getType()));
-		parameter.setNegated(part.getType().name().startsWith("NOT"));
-		parameter.setBooleanOperator(booleanOperator);
-
-		if (part.getProperty().next() != null) {
-			parameter.setOwnerEntityType(part.getProperty().getOwningType().getType());
-			parameter.setNestedPropertyType(part.getProperty().getType());
-			parameter.setPropertyName(part.getProperty().getLeafProperty().getSegment());
-			parameter.setNestedPropertyName(part.getProperty().getSegment());
-		}
-		parameters.add(parameter);
-
+		filterDefinitions.add(new FilterDefinition(entityType, part, booleanOperator, paramPosition++));
 	}
 
-	private ComparisonOperator convertToComparisonOperator(Part.Type type) {
+	private static ComparisonOperator convertToComparisonOperator(Part.Type type) {
 		switch (type) {
 			case GREATER_THAN:
 				return ComparisonOperator.GREATER_THAN;
@@ -83,4 +78,53 @@ public class CypherFinderQuery implements DerivedQueryDefinition {
 		}
 	}
 
+	/**
+	 * The immutable description of a {@link Filter}, worked out once from a {@link Part} of the finder.
+	 */
+	private static final class FilterDefinition {
+
+		private final int propertyPosition;
+		private final String propertyName;
+		private final Class<?> ownerEntityType;
+		private final ComparisonOperator comparisonOperator;
+		private final boolean negated;
+		private final BooleanOperator booleanOperator;
+		private final Class<?> nestedPropertyType;
+		private final String nestedPropertyName;
+
+		FilterDefinition(Class<?> entityType, Part part, BooleanOperator booleanOperator, int propertyPosition) {
+			this.propertyPosition = propertyPosition;
+			this.comparisonOperator = convertToComparisonOperator(part.getType());
+			this.negated = part.getType().name().startsWith("NOT");
+			this.booleanOperator = booleanOperator;
+
+			if (part.getProperty().next() != null) {
+				this.ownerEntityType = part.getProperty().getOwningType().getType();
+				this.nestedPropertyType = part.getProperty().getType();
+				this.propertyName = part.getProperty().getLeafProperty().getSegment();
+				this.nestedPropertyName = part.getProperty().getSegment();
+			} else {
+				this.ownerEntityType = entityType;
+				this.nestedPropertyType = null;
+				this.propertyName = part.getProperty().getSegment();
+				this.nestedPropertyName = null;
+			}
+		}
+
+		Filter toFilter() {
+			Filter parameter = new Filter();
+			parameter.setPropertyPosition(propertyPosition);
+			parameter.setPropertyName(propertyName);
+			parameter.setOwnerEntityType(ownerEntityType);
+			parameter.setComparisonOperator(comparisonOperator);
+			parameter.setNegated(negated);
+			parameter.setBooleanOperator(booleanOperator);
+			if (nestedPropertyName != null) {
+				parameter.setNestedPropertyType(nestedPropertyType);
+				parameter.setNestedPropertyName(nestedPropertyName);
+			}
+			return parameter;
+		}
+	}
+
 }
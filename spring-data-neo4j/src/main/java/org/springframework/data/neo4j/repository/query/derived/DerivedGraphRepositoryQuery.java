@@ -13,18 +13,44 @@
 
 package org.springframework.data.neo4j.repository.query.derived;
 
+import org.neo4j.ogm.annotation.GraphId;
+import org.neo4j.ogm.annotation.typeconversion.Convert;
+import org.neo4j.ogm.cypher.BooleanOperator;
+import org.neo4j.ogm.cypher.ComparisonOperator;
 import org.neo4j.ogm.cypher.Filter;
 import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.metrics.MetricsUtils;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
 import org.springframework.data.neo4j.repository.query.GraphQueryMethod;
+import org.springframework.data.neo4j.repository.query.KeysetQuery;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.data.neo4j.template.Neo4jTemplate;
 import org.springframework.data.repository.core.EntityMetadata;
 import org.springframework.data.repository.query.QueryMethod;
 import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.query.ReturnedType;
 import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.neo4j.util.GraphEntityUtils.isRelationshipEntity;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.pattern;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.propertyName;
 
 /**
  * Specialisation of {@link RepositoryQuery} that handles mapping of derived finders.
@@ -34,7 +60,7 @@ import java.util.Map;
  */
 public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 
-	private DerivedQueryDefinition queryDefinition;
+	private final DerivedQueryDefinition queryDefinition;
 
 	private final GraphQueryMethod graphQueryMethod;
 
@@ -42,18 +68,23 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 
 	private final int DEFAULT_QUERY_DEPTH = 1;
 
+	/*
+	 * The Cypher expressions returning each property of a closed projection, or null if entities must be loaded.
+	 */
+	private final Map<String, String> projectedProperties;
+
 	public DerivedGraphRepositoryQuery(GraphQueryMethod graphQueryMethod, Session session) {
 		this.graphQueryMethod = graphQueryMethod;
 		this.session = session;
 		EntityMetadata<?> info = graphQueryMethod.getEntityInformation();
 		PartTree tree = new PartTree(graphQueryMethod.getName(), info.getJavaType());
 		this.queryDefinition = new DerivedQueryCreator(tree, info.getJavaType()).createQuery();
+		this.projectedProperties = resolveProjectedProperties(info.getJavaType());
 	}
 
 	@Override
 	public Object execute(Object[] parameters) {
-		Class<?> returnType = graphQueryMethod.getMethod().getReturnType();
-		Class<?> concreteType = graphQueryMethod.resolveConcreteReturnType();
+		long start = System.nanoTime();
 		int queryDepth = DEFAULT_QUERY_DEPTH;
 
 		if (graphQueryMethod.hasStaticDepth()) {
@@ -65,16 +96,62 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 			}
 		}
 
-		Filters params = resolveParams(parameters);
+		Filters params;
+		Object result;
+		try {
+			// the finder must see the saves a write-behind template has deferred
+			if (TransactionSynchronizationManager.isSynchronizationActive()) {
+				TransactionSynchronizationUtils.triggerFlush();
+			}
+			params = resolveParams(parameters);
+			result = execute(parameters, params, queryDepth);
+		} catch (RuntimeException e) {
+			MetricsUtils.recordFailure(graphQueryMethod.getMetrics(), graphQueryMethod.getRepositoryName(),
+					graphQueryMethod.getName(), queryDepth, start, e);
+			throw e;
+		}
+		SlowQueryLog slowQueryLog = graphQueryMethod.getSlowQueryLog();
+		if (slowQueryLog != null) {
+			slowQueryLog.record(graphQueryMethod.getRepositoryName() + "." + graphQueryMethod.getName(), describe(params, queryDepth),
+					filterValues(params), System.nanoTime() - start, MetricsUtils.rows(result), false);
+		}
+		// closed projections are read as rows, everything else is mapped from loaded entities
+		return MetricsUtils.record(graphQueryMethod.getMetrics(), graphQueryMethod.getRepositoryName(),
+				graphQueryMethod.getName(), queryDepth, start, result, projectedProperties == null);
+	}
+
+	private Object execute(Object[] parameters, Filters params, int queryDepth) {
+		Class<?> returnType = graphQueryMethod.getUnwrappedReturnType();
+		Class<?> concreteType = graphQueryMethod.resolveConcreteReturnType();
+
 		if (returnType.equals(Void.class)) {
 			throw new RuntimeException("Derived Queries must have a return type");
 		}
 
+		if (graphQueryMethod.isKeysetQuery()) {
+			KeysetRequest request = (KeysetRequest) parameters[graphQueryMethod.getKeysetRequestParamIndex()];
+			return executeKeyset(concreteType, request, params, queryDepth);
+		}
+
+		if (projectedProperties != null) {
+			return executeProjection(returnType, params);
+		}
+
+		ResultProcessor processor = graphQueryMethod.getResultProcessor();
+		if (processor.getReturnedType().isProjecting()) {
+			Class<?> domainType = graphQueryMethod.getEntityInformation().getJavaType();
+			return processor.processResult(load(returnType, domainType, params, queryDepth));
+		}
+
+		return load(returnType, Iterable.class.isAssignableFrom(returnType) ? concreteType : returnType, params, queryDepth);
+	}
+
+	private Object load(Class<?> returnType, Class<?> entityType, Filters params, int queryDepth) {
 		if (Iterable.class.isAssignableFrom(returnType)) {
-			return session.loadAll(concreteType, params, queryDepth);
+			return session.loadAll(entityType, params, queryDepth);
 		}
 
-		Iterator<?> objectIterator = session.loadAll(returnType, params, queryDepth).iterator();
+		Iterator<?> objectIterator = session.loadAll(entityType, params, queryDepth).iterator();
 		if(objectIterator.hasNext()) {
 			return objectIterator.next();
 		}
@@ -82,24 +159,205 @@ public class DerivedGraphRepositoryQuery implements RepositoryQuery {
 	}
 
 	/**
-	 * Sets values from  parameters supplied by the finder on {@link org.neo4j.ogm.cypher.Filter} built by the {@link GraphQueryMethod}
+	 * Sets values from  parameters supplied by the finder on new {@link org.neo4j.ogm.cypher.Filter}s built from the
+	 * query definition, so that concurrent invocations share no mutable state.
 	 * @param parameters parameter values supplied by the finder method
 	 * @return List of Parameter with values set
 	 */
 	private Filters resolveParams(Object[] parameters) {
-		Map<Integer, Object> params = new HashMap<>();
+		Integer depthParamIndex = graphQueryMethod.getQueryDepthParamIndex();
+		Integer keysetRequestParamIndex = graphQueryMethod.getKeysetRequestParamIndex();
 
-		for (int i = 0; i < parameters.length; i++) {
-			if (graphQueryMethod.getQueryDepthParamIndex() == null || (graphQueryMethod.getQueryDepthParamIndex() != null && graphQueryMethod.getQueryDepthParamIndex() != i)) {
-				params.put(i, parameters[i]);
+		Filters queryParams = queryDefinition.getFilters();
+		for (Filter queryParam : queryParams) {
+			int position = queryParam.getPropertyPosition();
+			boolean bound = position < parameters.length
+					&& (depthParamIndex == null || depthParamIndex != position)
+					&& (keysetRequestParamIndex == null || keysetRequestParamIndex != position);
+			queryParam.setPropertyValue(bound ? parameters[position] : null);
+		}
+		return queryParams;
+	}
+
+	/*
+	 * The Cypher of derived finders is generated by the OGM, so slow ones are described by the filters they apply.
+	 */
+	private String describe(Filters filters, int depth) {
+		StringBuilder description = new StringBuilder("Derived finder on ")
+				.append(graphQueryMethod.getEntityInformation().getJavaType().getSimpleName());
+		int i = 0;
+		for (Filter filter : filters) {
+			description.append(i++ == 0 ? " where " : filter.getBooleanOperator() == BooleanOperator.OR ? " or " : " and ")
+					.append(filter.isNegated() ? "not " : "")
+					.append(filter.getNestedPropertyName() != null ? filter.getNestedPropertyName() + "." : "")
+					.append(filter.getPropertyName()).append(' ').append(filter.getComparisonOperator());
+		}
+		return description.append(" at depth ").append(depth).toString();
+	}
+
+	private static Map<String, Object> filterValues(Filters filters) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (Filter filter : filters) {
+			values.put(filter.getPropertyName(), filter.getPropertyValue());
+		}
+		return values;
+	}
+
+	/**
+	 * Keyset pages can't be expressed as OGM {@link Filters}, so the filters of the finder are rendered as Cypher criteria
+	 * for a {@link KeysetQuery}.  Only properties of the entity itself are supported.
+	 */
+	private KeysetSlice<?> executeKeyset(Class<?> type, KeysetRequest request, Filters filters, int depth) {
+		for (Filter filter : filters) {
+			if (filter.getNestedPropertyName() != null) {
+				throw new UnsupportedOperationException("Keyset pages are not supported by derived finders on nested properties: "
+						+ graphQueryMethod.getName());
+			}
+			if (operator(filter) == null) {
+				throw new UnsupportedOperationException("Keyset pages are not supported by derived finders using "
+						+ filter.getComparisonOperator() + ": " + graphQueryMethod.getName());
 			}
 		}
+		Map<String, Object> criteriaParams = new HashMap<>();
+		String criteria = criteria(filters, criteriaParams);
+		// the configured operations publish the events and honour the write-behind, metrics and slow query log settings
+		Neo4jOperations operations = graphQueryMethod.getNeo4jOperations();
+		return new KeysetQuery<>(type, operations != null ? operations : new Neo4jTemplate(session))
+				.execute(request, criteria, criteriaParams, depth);
+	}
 
-		Filters queryParams = queryDefinition.getFilters();
-		for(Filter queryParam : queryParams) {
-			queryParam.setPropertyValue(params.get(queryParam.getPropertyPosition()));
+	/**
+	 * A closed projection only needs some properties of the matching entities, so these are returned by a Cypher query
+	 * and the projection is backed by each row, instead of hydrating entities and their relationships.
+	 */
+	private Object executeProjection(Class<?> returnType, Filters filters) {
+		Class<?> domainType = graphQueryMethod.getEntityInformation().getJavaType();
+		Map<String, Object> queryParams = new HashMap<>();
+		String criteria = criteria(filters, queryParams);
+
+		StringBuilder cypher = new StringBuilder("MATCH ").append(pattern(domainType, KeysetQuery.ENTITY));
+		if (criteria != null) {
+			cypher.append(" WHERE ").append(criteria);
 		}
-		return queryParams;
+		cypher.append(" RETURN ");
+		int i = 0;
+		for (Map.Entry<String, String> property : projectedProperties.entrySet()) {
+			cypher.append(i++ > 0 ? ", " : "").append(property.getValue()).append(" AS `").append(property.getKey()).append('`');
+		}
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Map<String, Object> row : session.query(cypher.toString(), queryParams).queryResults()) {
+			rows.add(row);
+		}
+		ResultProcessor processor = graphQueryMethod.getResultProcessor();
+		if (Iterable.class.isAssignableFrom(returnType)) {
+			return processor.processResult(rows);
+		}
+		return rows.isEmpty() ? null : processor.processResult(rows.get(0));
+	}
+
+	/**
+	 * @return The filters rendered as Cypher criteria on {@link KeysetQuery#ENTITY}, adding their values to the given
+	 * parameters, or <code>null</code> if there are no filters
+	 */
+	private String criteria(Filters filters, Map<String, Object> criteriaParams) {
+		Class<?> domainType = graphQueryMethod.getEntityInformation().getJavaType();
+		StringBuilder criteria = new StringBuilder();
+		int i = 0;
+		for (Filter filter : filters) {
+			if (i > 0) {
+				criteria.append(filter.getBooleanOperator() == BooleanOperator.OR ? " OR " : " AND ");
+			}
+			String parameter = "criteria" + i++;
+			String predicate = KeysetQuery.ENTITY + ".`" + propertyName(domainType, filter.getPropertyName()) + "` "
+					+ operator(filter) + " {" + parameter + "}";
+			criteria.append(filter.isNegated() ? "NOT(" + predicate + ")" : predicate);
+			criteriaParams.put(parameter, value(filter));
+		}
+		return criteria.length() == 0 ? null : criteria.toString();
+	}
+
+	/**
+	 * @return The Cypher operator of the filter, or <code>null</code> if it can't be rendered as a single operator
+	 */
+	private static String operator(Filter filter) {
+		switch (filter.getComparisonOperator()) {
+			case EQUALS:
+				return "=";
+			case GREATER_THAN:
+				return ">";
+			case LESS_THAN:
+				return "<";
+			case MATCHES:
+			case LIKE:
+				return "=~";
+			default:
+				return null;
+		}
+	}
+
+	/**
+	 * Partial loading is limited to closed interface projections of node entities exposing only simple properties,
+	 * found by filters on properties of the entity itself. Anything else, such as a projection exposing related
+	 * entities or using SpEL, is backed by fully loaded entities.
+	 */
+	private Map<String, String> resolveProjectedProperties(Class<?> domainType) {
+		ReturnedType returnedType = graphQueryMethod.getResultProcessor().getReturnedType();
+		if (!returnedType.isProjecting() || !returnedType.getReturnedType().isInterface()
+				|| returnedType.getInputProperties().isEmpty() || isRelationshipEntity(domainType)
+				|| graphQueryMethod.isKeysetQuery() || graphQueryMethod.isPageQuery() || graphQueryMethod.isSliceQuery()) {
+			return null;
+		}
+		for (Filter filter : queryDefinition.getFilters()) {
+			if (filter.getNestedPropertyName() != null || operator(filter) == null) {
+				return null;
+			}
+		}
+
+		Map<String, String> properties = new LinkedHashMap<>();
+		for (String property : returnedType.getInputProperties()) {
+			Field field = ReflectionUtils.findField(domainType, property);
+			if (field == null || field.isAnnotationPresent(Convert.class)) {
+				return null;
+			}
+			if (field.isAnnotationPresent(GraphId.class) || ("id".equals(property) && Long.class.equals(field.getType()))) {
+				properties.put(property, "ID(" + KeysetQuery.ENTITY + ")");
+			} else if (isSimpleProperty(field.getType())) {
+				properties.put(property, KeysetQuery.ENTITY + ".`" + propertyName(domainType, property) + "`");
+			} else {
+				return null;
+			}
+		}
+		return properties;
+	}
+
+	/*
+	 * Types stored as graph properties without conversion by the OGM, or converted back from their String form.
+	 */
+	private static boolean isSimpleProperty(Class<?> type) {
+		Class<?> componentType = type.isArray() ? type.getComponentType() : type;
+		return ClassUtils.isPrimitiveOrWrapper(componentType) || String.class.equals(componentType)
+				|| componentType.isEnum();
+	}
+
+	/*
+	 * As in the OGM, LIKE values are case insensitive and use * as a wildcard.
+	 */
+	private Object value(Filter filter) {
+		if (filter.getComparisonOperator() != ComparisonOperator.LIKE || filter.getPropertyValue() == null) {
+			return filter.getPropertyValue();
+		}
+		StringBuilder regex = new StringBuilder("(?i)");
+		String[] segments = filter.getPropertyValue().toString().split("\\*", -1);
+		for (int i = 0; i < segments.length; i++) {
+			if (i > 0) {
+				regex.append(".*");
+			}
+			if (!segments[i].isEmpty()) {
+				regex.append(Pattern.quote(segments[i]));
+			}
+		}
+		return regex.toString();
 	}
 
 	@Override
@@ -39,7 +39,8 @@ public interface DerivedQueryDefinition {
 	Part getBasePart();
 
 	/**
-	 * Gets all parameters
+	 * Gets all parameters. A new list of new filters is returned on each call, so callers may set values on them
+	 * without affecting each other.
 	 * @return List of Filters
 	 */
 	Filters getFilters();
@@ -0,0 +1,382 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.neo4j.event.AfterDeleteEvent;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BeforeDeleteEvent;
+import org.springframework.data.neo4j.event.Neo4jDataManipulationEvent;
+import org.springframework.data.neo4j.event.Neo4jDeleteByIdEvent;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * A second-level cache of the entities returned by <code>findOne</code> on graph repositories, shared by all sessions.
+ * <p>
+ * Caching is enabled per entity class with {@link #enable(Class, EntityCachePolicy)}, and is meant for reference data
+ * that is read far more often than it changes. Entities are cached by graph id and load depth. The same cached
+ * instance is handed to every caller and every session, so cached entities must be treated as read-only: a change made
+ * to one is seen by all callers without being saved. Load an entity inside a transaction that may write in order to
+ * change it.
+ * </p>
+ * <p>
+ * When declared as a bean, the cache receives the events published by the
+ * {@link org.springframework.data.neo4j.template.Neo4jTemplate} and invalidates every entity that is saved or
+ * deleted through it, once more after the enclosing transaction completes. The cache is bypassed inside transactions
+ * that may write, so that uncommitted changes are never shared and entities changed there are never cached ones.
+ * Changes made by Cypher statements, and to related entities loaded at a depth above 0, are not detected: use a time to
+ * live for these.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class EntityCache implements ApplicationListener<ApplicationEvent> {
+
+    private final Map<Class<?>, Region> regions = new ConcurrentHashMap<>();
+
+    /**
+     * Caches the entities of the given class, loaded by repositories for that class.
+     *
+     * @param type   The entity class
+     * @param policy How the entities of the class are evicted
+     */
+    public void enable(Class<?> type, EntityCachePolicy policy) {
+        Assert.notNull(type, "The entity class must not be null");
+        Assert.notNull(policy, "The cache policy must not be null");
+        regions.put(type, new Region(policy));
+    }
+
+    public boolean isEnabled(Class<?> type) {
+        return regions.containsKey(type);
+    }
+
+    /**
+     * @return The cached entity of the given class, or <code>null</code> if it isn't cached, caching is disabled for
+     * the class or a transaction that may write is active
+     */
+    public <T> T get(Class<T> type, Long id, int depth) {
+        Region region = regions.get(type);
+        return region == null || id == null || isWritableTransactionActive() ? null : type.cast(region.get(id, depth));
+    }
+
+    /**
+     * Returns the generation of the cached entities of the given class, which changes whenever any of them are
+     * invalidated. Take it before loading an entity and pass it to {@link #put(Class, Long, int, Object, long)}, so
+     * that an entity saved or deleted while it was being loaded isn't cached.
+     *
+     * @return The current generation, or 0 if caching is disabled for the class
+     */
+    public long generation(Class<?> type) {
+        Region region = regions.get(type);
+        return region != null ? region.generation() : 0;
+    }
+
+    /**
+     * Caches an entity loaded at the given depth, unless caching is disabled for its class or it was loaded in a
+     * transaction that may have changed it. The entity must be current: use
+     * {@link #put(Class, Long, int, Object, long)} for entities loaded from the database.
+     */
+    public void put(Class<?> type, Long id, int depth, Object entity) {
+        put(type, id, depth, entity, generation(type));
+    }
+
+    /**
+     * Caches an entity loaded at the given depth, unless caching is disabled for its class, it was loaded in a
+     * transaction that may have changed it, or entities of its class have been invalidated since it was loaded.
+     *
+     * @param generation The {@link #generation(Class)} taken before the entity was loaded
+     */
+    public void put(Class<?> type, Long id, int depth, Object entity, long generation) {
+        Region region = regions.get(type);
+        if (region == null || id == null || entity == null || isWritableTransactionActive()) {
+            return;
+        }
+        region.put(id, depth, entity, generation);
+    }
+
+    /**
+     * Discards the entity with the given graph id, cached at any depth and for any class.
+     */
+    public void invalidate(Long id) {
+        for (Region region : regions.values()) {
+            region.invalidate(id);
+        }
+    }
+
+    /**
+     * Discards all the cached entities of the given class.
+     */
+    public void invalidateAll(Class<?> type) {
+        Region region = regions.get(type);
+        if (region != null) {
+            region.clear();
+        }
+    }
+
+    public void clear() {
+        for (Region region : regions.values()) {
+            region.clear();
+        }
+    }
+
+    /**
+     * @return A snapshot of the statistics of the given class, or <code>null</code> if caching is disabled for it
+     */
+    public EntityCacheStatistics getStatistics(Class<?> type) {
+        Region region = regions.get(type);
+        return region != null ? region.statistics() : null;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        final Set<Long> ids = new HashSet<>();
+        if (event instanceof Neo4jDeleteByIdEvent) {
+            ids.addAll(((Neo4jDeleteByIdEvent) event).getIds());
+        } else if (event instanceof AfterSaveEvent || event instanceof BeforeDeleteEvent
+                || event instanceof AfterDeleteEvent) {
+            if (!collectIds(event.getSource(), ((Neo4jDataManipulationEvent) event).getEntity(), ids)) {
+                clear();
+                return;
+            }
+        } else {
+            return;
+        }
+        invalidate(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(ids);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Set<Long> ids) {
+        for (Long id : ids) {
+            invalidate(id);
+        }
+    }
+
+    /*
+     * Events carry an entity or a collection of entities.
+     *
+     * @return false if the id of an entity can't be worked out
+     */
+    private static boolean collectIds(Object source, Object entity, Set<Long> ids) {
+        if (entity == null) {
+            return true;
+        }
+        if (entity instanceof Iterable) {
+            for (Object element : (Iterable<?>) entity) {
+                if (!collectIds(source, element, ids)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (!(source instanceof Neo4jOperations)) {
+            return false;
+        }
+        Long id = ((Neo4jOperations) source).resolveGraphIdFor(entity);
+        if (id != null) {
+            ids.add(id);
+        }
+        return true;
+    }
+
+    private static boolean isWritableTransactionActive() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * The cached entities of a single class, in least recently used order.
+     */
+    private static class Region {
+
+        private final EntityCachePolicy policy;
+        private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Long, Set<Integer>> depthsById = new HashMap<>();
+        private long weight;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long invalidations;
+        private long generation;
+
+        Region(EntityCachePolicy policy) {
+            this.policy = policy;
+        }
+
+        synchronized Object get(Long id, int depth) {
+            Key key = new Key(id, depth);
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+                remove(key);
+                evictions++;
+                entry = null;
+            }
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.entity;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        /*
+         * Entities loaded before the last invalidation may have been loaded before the save or delete that caused it,
+         * so they are dropped rather than cached until they expire.
+         */
+        synchronized void put(Long id, int depth, Object entity, long loadedGeneration) {
+            if (loadedGeneration != generation) {
+                return;
+            }
+            long ttl = policy.getTimeToLive();
+            Entry entry = new Entry(entity, policy.getWeigher().weigh(entity),
+                    ttl == EntityCachePolicy.NO_EXPIRY ? Long.MAX_VALUE : System.currentTimeMillis() + ttl);
+            if (entry.weight > policy.getMaxWeight()) {
+                return;
+            }
+            Key key = new Key(id, depth);
+            remove(key);
+            entries.put(key, entry);
+            weight += entry.weight;
+            Set<Integer> depths = depthsById.get(id);
+            if (depths == null) {
+                depths = new HashSet<>();
+                depthsById.put(id, depths);
+            }
+            depths.add(depth);
+
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            while (weight > policy.getMaxWeight() && eldest.hasNext()) {
+                Map.Entry<Key, Entry> evicted = eldest.next();
+                eldest.remove();
+                weight -= evicted.getValue().weight;
+                forget(evicted.getKey());
+                evictions++;
+            }
+        }
+
+        synchronized void invalidate(Long id) {
+            generation++;
+            Set<Integer> depths = depthsById.get(id);
+            if (depths == null) {
+                return;
+            }
+            for (Integer depth : depths.toArray(new Integer[depths.size()])) {
+                if (remove(new Key(id, depth)) != null) {
+                    invalidations++;
+                }
+            }
+        }
+
+        synchronized void clear() {
+            generation++;
+            invalidations += entries.size();
+            entries.clear();
+            depthsById.clear();
+            weight = 0;
+        }
+
+        synchronized EntityCacheStatistics statistics() {
+            return new EntityCacheStatistics(hits, misses, evictions, invalidations, entries.size());
+        }
+
+        private Entry remove(Key key) {
+            Entry entry = entries.remove(key);
+            if (entry != null) {
+                weight -= entry.weight;
+                forget(key);
+            }
+            return entry;
+        }
+
+        private void forget(Key key) {
+            Set<Integer> depths = depthsById.get(key.id);
+            if (depths != null) {
+                depths.remove(key.depth);
+                if (depths.isEmpty()) {
+                    depthsById.remove(key.id);
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final Object entity;
+        private final long weight;
+        private final long expiresAt;
+
+        Entry(Object entity, long weight, long expiresAt) {
+            this.entity = entity;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    private static class Key {
+
+        private final long id;
+        private final int depth;
+
+        Key(long id, int depth) {
+            this.id = id;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) o;
+            return id == that.id && depth == that.depth;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (id ^ (id >>> 32)) + depth;
+        }
+    }
+}
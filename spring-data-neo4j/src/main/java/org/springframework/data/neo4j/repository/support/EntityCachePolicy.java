@@ -0,0 +1,103 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import org.springframework.util.Assert;
+
+/**
+ * Describes how an {@link EntityCache} keeps the entities of a class: cached entities expire after a time to live,
+ * and the least recently used ones are evicted when the total weight of the cached entities exceeds a maximum.
+ * <p>
+ * With the default {@link #UNIT_WEIGHER}, every entity weighs 1, so the maximum weight is the maximum number of
+ * entities.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class EntityCachePolicy {
+
+    /**
+     * A time to live meaning that cached entities never expire.
+     */
+    public static final long NO_EXPIRY = 0;
+
+    /**
+     * Weighs every entity as 1.
+     */
+    public static final Weigher UNIT_WEIGHER = new Weigher() {
+        @Override
+        public long weigh(Object entity) {
+            return 1;
+        }
+    };
+
+    private final long maxWeight;
+    private final long timeToLive;
+    private final Weigher weigher;
+
+    /**
+     * @param maxWeight  The maximum total weight of the cached entities, which must be positive
+     * @param timeToLive The time in milliseconds after which a cached entity expires, or {@link #NO_EXPIRY}
+     * @param weigher    Works out the weight of each cached entity
+     */
+    public EntityCachePolicy(long maxWeight, long timeToLive, Weigher weigher) {
+        Assert.isTrue(maxWeight > 0, "The maximum weight must be positive");
+        Assert.isTrue(timeToLive >= 0, "The time to live must not be negative");
+        Assert.notNull(weigher, "A weigher is required");
+        this.maxWeight = maxWeight;
+        this.timeToLive = timeToLive;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @param maxEntries The maximum number of cached entities, the least recently used being evicted first
+     * @return A policy keeping entities until they are evicted or invalidated
+     */
+    public static EntityCachePolicy lru(long maxEntries) {
+        return new EntityCachePolicy(maxEntries, NO_EXPIRY, UNIT_WEIGHER);
+    }
+
+    /**
+     * @param maxEntries The maximum number of cached entities, the least recently used being evicted first
+     * @param timeToLive The time in milliseconds after which a cached entity expires
+     * @return A policy keeping entities until they expire, are evicted or are invalidated
+     */
+    public static EntityCachePolicy lru(long maxEntries, long timeToLive) {
+        return new EntityCachePolicy(maxEntries, timeToLive, UNIT_WEIGHER);
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public Weigher getWeigher() {
+        return weigher;
+    }
+
+    /**
+     * Works out the weight of a cached entity, typically an estimate of its size.
+     */
+    public interface Weigher {
+
+        /**
+         * @param entity The entity to weigh
+         * @return The weight, which must not be negative
+         */
+        long weigh(Object entity);
+    }
+}
@@ -14,6 +14,8 @@
 package org.springframework.data.neo4j.repository.support;
 
 import org.neo4j.ogm.session.Session;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
 import org.springframework.data.neo4j.repository.GraphRepositoryImpl;
 import org.springframework.data.neo4j.repository.query.GraphQueryLookupStrategy;
 import org.springframework.data.neo4j.template.Neo4jOperations;
@@ -34,12 +36,73 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
 
     private final Session session;
     private final Neo4jOperations neo4jOperations;
+    private int batchSize = GraphRepositoryImpl.DEFAULT_BATCH_SIZE;
+    private PageTotalCalculator pageTotalCalculator = new PageTotalCalculator();
+    private EntityCache entityCache;
+    private QueryResultCache queryResultCache;
+    private Neo4jMetrics metrics;
+    private SlowQueryLog slowQueryLog;
 
     public GraphRepositoryFactory(Session session, Neo4jOperations neo4jOperations) {
         this.session = session;
         this.neo4jOperations = neo4jOperations;
     }
 
+    /**
+     * Sets the batch size used by the bulk save and delete operations of the repositories created by this factory.
+     *
+     * @param batchSize The maximum number of entities sent to the database in a single request
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the {@link PageTotalCalculator} shared by the repositories and query methods created by this factory.
+     *
+     * @param pageTotalCalculator The calculator that works out the total number of elements of returned pages
+     */
+    public void setPageTotalCalculator(PageTotalCalculator pageTotalCalculator) {
+        this.pageTotalCalculator = pageTotalCalculator;
+    }
+
+    /**
+     * Sets the second-level cache used by the repositories created by this factory.
+     *
+     * @param entityCache The cache of the entities found by id, may be <code>null</code>
+     */
+    public void setEntityCache(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    /**
+     * Sets the cache holding the results of the <code>&#064;CachedQuery</code> methods of the repositories created by
+     * this factory.
+     *
+     * @param queryResultCache The cache of query results, may be <code>null</code>
+     */
+    public void setQueryResultCache(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    /**
+     * Sets the recorder of the query methods of the repositories created by this factory.
+     *
+     * @param metrics The recorder of the measurements, may be <code>null</code>
+     */
+    public void setMetrics(Neo4jMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the log of the slow query methods of the repositories created by this factory.
+     *
+     * @param slowQueryLog The log of slow queries, may be <code>null</code>
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
     @Override
     public <T, ID extends Serializable> EntityInformation<T, ID> getEntityInformation(Class<T> type) {
         return new GraphEntityInformation(type);
@@ -47,7 +110,13 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
 
     @Override
     protected Object getTargetRepository(RepositoryInformation information) {
-        return getTargetRepositoryViaReflection(information, information.getDomainType(), neo4jOperations);
+        Object repository = getTargetRepositoryViaReflection(information, information.getDomainType(), neo4jOperations);
+        if (repository instanceof GraphRepositoryImpl) {
+            ((GraphRepositoryImpl<?>) repository).setBatchSize(batchSize);
+            ((GraphRepositoryImpl<?>) repository).setPageTotalCalculator(pageTotalCalculator);
+            ((GraphRepositoryImpl<?>) repository).setEntityCache(entityCache);
+        }
+        return repository;
     }
 
     @Override
@@ -58,7 +127,7 @@ public class GraphRepositoryFactory extends RepositoryFactorySupport {
     @Override
     protected QueryLookupStrategy getQueryLookupStrategy(QueryLookupStrategy.Key key,
                                                          EvaluationContextProvider evaluationContextProvider) {
-        return new GraphQueryLookupStrategy(session);
+        return new GraphQueryLookupStrategy(session, pageTotalCalculator, queryResultCache, metrics, slowQueryLog, neo4jOperations);
     }
 
 }
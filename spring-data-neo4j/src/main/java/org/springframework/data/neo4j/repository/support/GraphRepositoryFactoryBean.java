@@ -16,6 +16,10 @@ package org.springframework.data.neo4j.repository.support;
 import org.neo4j.ogm.session.Session;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.neo4j.mapping.Neo4jMappingContext;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.repository.GraphRepositoryImpl;
+import org.springframework.data.neo4j.repository.PagingStrategy;
 import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
@@ -36,7 +40,44 @@ public class GraphRepositoryFactoryBean<S extends Repository<T, Long>, T> extend
 
     @Autowired
     private Neo4jMappingContext mappingContext;
-    
+
+    @Autowired(required = false)
+    private EntityCache entityCache;
+
+    @Autowired(required = false)
+    private QueryResultCache queryResultCache;
+
+    @Autowired(required = false)
+    private Neo4jMetrics metrics;
+
+    @Autowired(required = false)
+    private SlowQueryLog slowQueryLog;
+
+    private int batchSize = GraphRepositoryImpl.DEFAULT_BATCH_SIZE;
+    private PagingStrategy pagingStrategy = PagingStrategy.ESTIMATE;
+    private long countCacheTtl = PageTotalCalculator.DEFAULT_COUNT_CACHE_TTL;
+
+    /**
+     * @param batchSize The maximum number of entities sent to the database in a single request by the bulk operations
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param pagingStrategy How the total number of elements of the returned pages is worked out
+     */
+    public void setPagingStrategy(PagingStrategy pagingStrategy) {
+        this.pagingStrategy = pagingStrategy;
+    }
+
+    /**
+     * @param countCacheTtl The time in milliseconds for which counts are kept by {@link PagingStrategy#CACHED}
+     */
+    public void setCountCacheTtl(long countCacheTtl) {
+        this.countCacheTtl = countCacheTtl;
+    }
+
     @Override
     public void afterPropertiesSet() {
         setMappingContext(mappingContext);
@@ -45,6 +86,13 @@ public class GraphRepositoryFactoryBean<S extends Repository<T, Long>, T> extend
 
     @Override
     protected RepositoryFactorySupport doCreateRepositoryFactory() {
-        return new GraphRepositoryFactory(session, neo4jOperations);
+        GraphRepositoryFactory factory = new GraphRepositoryFactory(session, neo4jOperations);
+        factory.setBatchSize(batchSize);
+        factory.setPageTotalCalculator(new PageTotalCalculator(pagingStrategy, countCacheTtl));
+        factory.setEntityCache(entityCache);
+        factory.setQueryResultCache(queryResultCache);
+        factory.setMetrics(metrics);
+        factory.setSlowQueryLog(slowQueryLog);
+        return factory;
     }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.neo4j.repository.PagingStrategy;
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the {@link Page}s returned by repositories, working out their total number of elements according to a
+ * {@link PagingStrategy} and keeping the counts needed by {@link PagingStrategy#CACHED}.
+ * <p>
+ * Instances are thread-safe and are shared by all the repositories created by a {@link GraphRepositoryFactory}.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class PageTotalCalculator {
+
+    /**
+     * The default time for which {@link PagingStrategy#CACHED} counts are kept, in milliseconds.
+     */
+    public static final long DEFAULT_COUNT_CACHE_TTL = TimeUnit.SECONDS.toMillis(30);
+
+    private static final int MAX_CACHED_COUNTS = 1000;
+
+    private final PagingStrategy defaultStrategy;
+    private final long countCacheTtl;
+    private final Map<Object, CachedCount> cachedCounts = new ConcurrentHashMap<>();
+
+    public PageTotalCalculator() {
+        this(PagingStrategy.ESTIMATE, DEFAULT_COUNT_CACHE_TTL);
+    }
+
+    /**
+     * @param defaultStrategy The strategy used by repository methods that don't ask for a particular one
+     * @param countCacheTtl   The time in milliseconds for which {@link PagingStrategy#CACHED} counts are kept
+     */
+    public PageTotalCalculator(PagingStrategy defaultStrategy, long countCacheTtl) {
+        Assert.notNull(defaultStrategy, "A default paging strategy is required");
+        Assert.isTrue(countCacheTtl >= 0, "The count cache TTL must not be negative");
+        this.defaultStrategy = defaultStrategy;
+        this.countCacheTtl = countCacheTtl;
+    }
+
+    public PagingStrategy getDefaultStrategy() {
+        return defaultStrategy;
+    }
+
+    /**
+     * Builds a page using the default strategy.
+     *
+     * @see #toPage(List, Pageable, PagingStrategy, Object, CountCallback)
+     */
+    public <T> Page<T> toPage(List<T> content, Pageable pageable, Object countKey, CountCallback countCallback) {
+        return toPage(content, pageable, defaultStrategy, countKey, countCallback);
+    }
+
+    /**
+     * Builds a page of the given content, working out its total number of elements with the given strategy.
+     *
+     * @param content       The elements of the page
+     * @param pageable      The requested page
+     * @param strategy      The strategy to use
+     * @param countKey      Identifies the count for caching, e.g. the entity type or the count query and its parameters
+     * @param countCallback Counts all the elements, or <code>null</code> if they cannot be counted, in which case the
+     *                      total is always estimated
+     * @return The page, never <code>null</code>
+     */
+    public <T> Page<T> toPage(List<T> content, Pageable pageable, PagingStrategy strategy, Object countKey, CountCallback countCallback) {
+        int pageSize = pageable.getPageSize();
+        int offset = pageable.getOffset();
+
+        if (strategy == PagingStrategy.ESTIMATE || countCallback == null) {
+            return new PageImpl<>(content, pageable, estimate(content.size(), pageSize, offset));
+        }
+
+        // a page that isn't full tells us the total, unless it's empty because the offset is beyond the last element
+        if (content.size() < pageSize && (offset == 0 || !content.isEmpty())) {
+            return new PageImpl<>(content, pageable, offset + content.size());
+        }
+
+        long total = strategy == PagingStrategy.CACHED ? cachedCount(countKey, countCallback) : countCallback.count();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Discards the cached counts whose key is the given one or, for keys that are lists such as a count query and its
+     * parameters, starts with it.
+     *
+     * @param countKey The key to evict, typically an entity type
+     */
+    public void evict(Object countKey) {
+        for (Iterator<Object> keys = cachedCounts.keySet().iterator(); keys.hasNext(); ) {
+            Object key = keys.next();
+            if (key.equals(countKey) || (key instanceof List && !((List<?>) key).isEmpty() && ((List<?>) key).get(0).equals(countKey))) {
+                keys.remove();
+            }
+        }
+    }
+
+    /*
+     * This is a cheap trick to estimate the total number of objects without actually knowing the real value.
+     * Essentially, if the result size is the same as the page size, we assume more data can be fetched, so
+     * we set the expected total to the current total retrieved so far + the current page size. As soon as the
+     * result size is less than the page size, we know there are no more, so we set the total to the number
+     * retrieved so far. This will ensure that page.next() returns false.
+     */
+    private long estimate(int resultSize, int pageSize, int pageOffset) {
+        return pageOffset + resultSize + (resultSize == pageSize ? pageSize : 0);
+    }
+
+    private long cachedCount(Object countKey, CountCallback countCallback) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = cachedCounts.get(countKey);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count;
+        }
+
+        long count = countCallback.count();
+        if (cachedCounts.size() >= MAX_CACHED_COUNTS) {
+            cachedCounts.clear();
+        }
+        cachedCounts.put(countKey, new CachedCount(count, now + countCacheTtl));
+        return count;
+    }
+
+    /**
+     * Counts the total number of elements a paged query can return.
+     */
+    public interface CountCallback {
+
+        long count();
+    }
+
+    private static class CachedCount {
+
+        private final long count;
+        private final long expiresAt;
+
+        CachedCount(long count, long expiresAt) {
+            this.count = count;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
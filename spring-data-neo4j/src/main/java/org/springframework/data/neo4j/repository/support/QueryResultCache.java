@@ -0,0 +1,271 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.neo4j.event.AfterDeleteEvent;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BeforeDeleteEvent;
+import org.springframework.data.neo4j.event.Neo4jDataManipulationEvent;
+import org.springframework.data.neo4j.event.Neo4jDeleteByIdEvent;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import static org.springframework.data.neo4j.util.GraphEntityUtils.isRelationshipEntity;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.label;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.relationshipType;
+
+/**
+ * Caches the results of the <code>&#064;Query</code> repository methods annotated with
+ * {@link org.springframework.data.neo4j.annotation.CachedQuery}, in a {@link Region} per method.
+ * <p>
+ * When declared as a bean, the cache is picked up by the {@link GraphRepositoryFactoryBean} and receives the events
+ * published by the {@link org.springframework.data.neo4j.template.Neo4jTemplate}: saving or deleting an entity discards
+ * the results of every region depending on one of its labels, or on its relationship type, at once and again after the
+ * enclosing transaction completes. Saves of relationship entities discard all results. Changes made by Cypher
+ * statements, and to related entities saved along with an entity, are not detected: these are covered by the time to
+ * live of the results.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class QueryResultCache implements ApplicationListener<ApplicationEvent> {
+
+    /**
+     * Stands for a <code>null</code> result in a region.
+     */
+    private static final Object NULL = new Object();
+
+    private final CopyOnWriteArrayList<Region> regions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates the region holding the results of a single query method.
+     *
+     * @param labels  The labels and relationship types whose changes invalidate the results
+     * @param ttl     The time in milliseconds for which results are kept
+     * @param maxSize The maximum number of results kept
+     * @return The new region
+     */
+    public Region createRegion(Set<String> labels, long ttl, int maxSize) {
+        Assert.isTrue(ttl > 0, "The time to live must be positive");
+        Assert.isTrue(maxSize > 0, "The maximum size must be positive");
+        Region region = new Region(new HashSet<>(labels), ttl, maxSize);
+        regions.add(region);
+        return region;
+    }
+
+    /**
+     * Discards the results of the regions depending on any of the given labels or relationship types.
+     *
+     * @param labels The changed labels and relationship types, or <code>null</code> to discard all results
+     */
+    public void invalidate(Set<String> labels) {
+        for (Region region : regions) {
+            if (labels == null || !Collections.disjoint(region.labels, labels)) {
+                region.clear();
+            }
+        }
+    }
+
+    public void clear() {
+        for (Region region : regions) {
+            region.clear();
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (regions.isEmpty()) {
+            return;
+        }
+        final Set<String> changed;
+        if (event instanceof Neo4jDeleteByIdEvent) {
+            changed = labelsOf(((Neo4jDeleteByIdEvent) event).getEntityType());
+        } else if (event instanceof AfterSaveEvent || event instanceof BeforeDeleteEvent
+                || event instanceof AfterDeleteEvent) {
+            Set<String> labels = new HashSet<>();
+            changed = collectLabels(((Neo4jDataManipulationEvent) event).getEntity(), labels) ? labels : null;
+        } else {
+            return;
+        }
+        invalidate(changed);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    QueryResultCache.this.invalidate(changed);
+                }
+            });
+        }
+    }
+
+    /**
+     * Works out the labels of the node entities carried by an event, as the OGM does: the label of the class and of
+     * each of its super classes.
+     *
+     * @return false if some of the changed entities can't be told apart, so that all results should be discarded
+     */
+    private static boolean collectLabels(Object entity, Set<String> labels) {
+        if (entity == null) {
+            return true;
+        }
+        if (entity instanceof Iterable) {
+            for (Object element : (Iterable<?>) entity) {
+                if (!collectLabels(element, labels)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        Class<?> type = entity.getClass();
+        labels.addAll(labelsOf(type));
+        return !isRelationshipEntity(type);
+    }
+
+    /**
+     * @param type An entity class
+     * @return The relationship type of a relationship entity class, or the labels of the nodes of a node entity class
+     */
+    public static Set<String> labelsOf(Class<?> type) {
+        Set<String> labels = new HashSet<>();
+        if (isRelationshipEntity(type)) {
+            labels.add(relationshipType(type));
+            return labels;
+        }
+        for (; type != null && !Object.class.equals(type); type = type.getSuperclass()) {
+            labels.add(label(type));
+        }
+        return labels;
+    }
+
+    private static boolean isWritableTransactionActive() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * The results of a single query method, in least recently used order.
+     */
+    public static class Region {
+
+        private final Set<String> labels;
+        private final long ttl;
+        private final int maxSize;
+        private final LinkedHashMap<Object, CachedResult> results;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private long generation;
+
+        Region(Set<String> labels, long ttl, final int maxSize) {
+            this.labels = labels;
+            this.ttl = ttl;
+            this.maxSize = maxSize;
+            this.results = new LinkedHashMap<Object, CachedResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, CachedResult> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * Returns the cached result for the given key, or executes the query and caches its result. Inside a
+         * transaction that may write, the region is bypassed altogether: the query is executed, and its result is
+         * neither taken from nor added to the region, so that cached entities are never changed and uncommitted
+         * changes are never shared.
+         *
+         * @param key      Identifies the result, typically the query and its parameters
+         * @param callback Executes the query when no result is cached
+         * @return The result, which may be <code>null</code>
+         */
+        public Object get(Object key, ResultCallback callback) {
+            if (isWritableTransactionActive()) {
+                return callback.execute();
+            }
+            long queriedGeneration;
+            synchronized (this) {
+                CachedResult cached = results.get(key);
+                if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return cached.value == NULL ? null : cached.value;
+                }
+                results.remove(key);
+                queriedGeneration = generation;
+            }
+            misses.incrementAndGet();
+            Object value = callback.execute();
+            synchronized (this) {
+                // a result queried before the region was last invalidated may already be stale
+                if (queriedGeneration == generation) {
+                    results.put(key, new CachedResult(value == null ? NULL : value, System.currentTimeMillis() + ttl));
+                }
+            }
+            return value;
+        }
+
+        public synchronized void clear() {
+            results.clear();
+            generation++;
+        }
+
+        public Set<String> getLabels() {
+            return Collections.unmodifiableSet(labels);
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public synchronized int size() {
+            return results.size();
+        }
+
+        public long getHitCount() {
+            return hits.get();
+        }
+
+        public long getMissCount() {
+            return misses.get();
+        }
+    }
+
+    /**
+     * Executes the query whose result isn't cached.
+     */
+    public interface ResultCallback {
+
+        Object execute();
+    }
+
+    private static class CachedResult {
+
+        private final Object value;
+        private final long expiresAt;
+
+        CachedResult(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.model.Result;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Asynchronous counterpart of {@link Neo4jOperations}, implemented by {@link AsyncNeo4jTemplate}. Every operation is
+ * run on a separate thread and its outcome is delivered through a {@link ListenableFuture}, so that independent
+ * lookups can be issued in parallel.
+ *
+ * @author Tobias Hartmann
+ * @see Neo4jOperations
+ */
+public interface AsyncNeo4jOperations {
+
+    /**
+     * @see Neo4jOperations#load(Class, Long)
+     */
+    <T> ListenableFuture<T> load(Class<T> type, Long id);
+
+    /**
+     * @see Neo4jOperations#load(Class, Long, int)
+     */
+    <T> ListenableFuture<T> load(Class<T> type, Long id, int depth);
+
+    /**
+     * @see Neo4jOperations#loadAll(Class, int)
+     */
+    <T> ListenableFuture<Collection<T>> loadAll(Class<T> type, int depth);
+
+    /**
+     * @see Neo4jOperations#loadAll(Class, Collection, int)
+     */
+    <T> ListenableFuture<Collection<T>> loadAll(Class<T> type, Collection<Long> ids, int depth);
+
+    /**
+     * @see Neo4jOperations#loadAllByProperties(Class, Filters, int)
+     */
+    <T> ListenableFuture<Collection<T>> loadAllByProperties(Class<T> type, Filters parameters, int depth);
+
+    /**
+     * @see Neo4jOperations#query(String, Map)
+     */
+    ListenableFuture<Result> query(String cypher, Map<String, ?> parameters);
+
+    /**
+     * @see Neo4jOperations#query(String, Map, boolean)
+     */
+    ListenableFuture<Result> query(String cypher, Map<String, ?> parameters, boolean readOnly);
+
+    /**
+     * @see Neo4jOperations#queryForObjects(Class, String, Map)
+     */
+    <T> ListenableFuture<Iterable<T>> queryForObjects(Class<T> objectType, String cypher, Map<String, ?> parameters);
+
+    /**
+     * @see Neo4jOperations#queryForObject(Class, String, Map)
+     */
+    <T> ListenableFuture<T> queryForObject(Class<T> objectType, String cypher, Map<String, ?> parameters);
+
+    /**
+     * @see Neo4jOperations#count(Class)
+     */
+    ListenableFuture<Long> count(Class<?> entityClass);
+
+    /**
+     * @see Neo4jOperations#save(Object)
+     */
+    <T> ListenableFuture<T> save(T entity);
+
+    /**
+     * @see Neo4jOperations#save(Object, int)
+     */
+    <T> ListenableFuture<T> save(T entity, int depth);
+
+    /**
+     * @see Neo4jOperations#delete(Object)
+     */
+    ListenableFuture<Void> delete(Object entity);
+}
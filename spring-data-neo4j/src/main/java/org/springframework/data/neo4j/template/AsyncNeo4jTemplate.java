@@ -0,0 +1,398 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.model.Result;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.data.neo4j.transaction.SessionProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Implementation of {@link AsyncNeo4jOperations} that runs the operations of a {@link Neo4jOperations} on a bounded
+ * executor.
+ * <p>
+ * The operations run concurrently, so they must not share an OGM session, which is not thread-safe: a
+ * {@link Neo4jTemplate} must therefore be backed by a shared session, as created by
+ * {@link org.springframework.data.neo4j.transaction.SharedSessionCreator}, which gives each thread of the executor a
+ * session of its own.
+ * </p>
+ * <p>
+ * When a {@link PlatformTransactionManager} is given, every operation runs in a scope of its own: loads, counts,
+ * queries for objects and Cypher queries flagged read-only use propagation SUPPORTS with the read-only flag set, so no
+ * transaction is opened and a {@link org.springframework.data.neo4j.transaction.SessionRoutingPolicy} can route them to
+ * read replicas, while writes and other Cypher queries run in a transaction of their own.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class AsyncNeo4jTemplate implements AsyncNeo4jOperations, DisposableBean {
+
+    public static final int DEFAULT_POOL_SIZE = 8;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    public static final int DEFAULT_LOAD_CHUNK_PARALLELISM = 4;
+
+    private final Neo4jOperations operations;
+    private final AsyncListenableTaskExecutor executor;
+    private final ThreadPoolTaskExecutor ownedExecutor;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate writeTemplate;
+    private volatile int loadChunkSize;
+    private volatile int loadChunkParallelism = DEFAULT_LOAD_CHUNK_PARALLELISM;
+
+    /**
+     * Constructs a new {@link AsyncNeo4jTemplate} running operations on a pool of {@value #DEFAULT_POOL_SIZE} threads
+     * with a queue of at most {@value #DEFAULT_QUEUE_CAPACITY} pending operations. The pool is shut down when this
+     * template is destroyed.
+     *
+     * @param operations         The operations to run asynchronously
+     * @param transactionManager The transaction manager isolating each operation, may be <code>null</code>
+     */
+    public AsyncNeo4jTemplate(Neo4jOperations operations, PlatformTransactionManager transactionManager) {
+        this(operations, transactionManager, defaultExecutor());
+    }
+
+    /**
+     * Constructs a new {@link AsyncNeo4jTemplate} running operations on the given executor.
+     *
+     * @param operations         The operations to run asynchronously
+     * @param transactionManager The transaction manager isolating each operation, may be <code>null</code>
+     * @param executor           The executor the operations are submitted to
+     */
+    public AsyncNeo4jTemplate(Neo4jOperations operations, PlatformTransactionManager transactionManager,
+                              AsyncListenableTaskExecutor executor) {
+        this(operations, transactionManager, executor, null);
+    }
+
+    private AsyncNeo4jTemplate(Neo4jOperations operations, PlatformTransactionManager transactionManager,
+                               ThreadPoolTaskExecutor ownedExecutor) {
+        this(operations, transactionManager, ownedExecutor, ownedExecutor);
+    }
+
+    private AsyncNeo4jTemplate(Neo4jOperations operations, PlatformTransactionManager transactionManager,
+                               AsyncListenableTaskExecutor executor, ThreadPoolTaskExecutor ownedExecutor) {
+        Assert.notNull(operations, "Cannot create an AsyncNeo4jTemplate without Neo4jOperations!");
+        Assert.notNull(executor, "Cannot create an AsyncNeo4jTemplate without an executor!");
+        Neo4jOperations target = operations instanceof InstrumentedNeo4jOperations
+                ? ((InstrumentedNeo4jOperations) operations).getDelegate() : operations;
+        if (target instanceof Neo4jTemplate) {
+            Assert.isInstanceOf(SessionProxy.class, ((Neo4jTemplate) target).getSession(),
+                    "Cannot create an AsyncNeo4jTemplate sharing a plain Session between threads!");
+        }
+        this.operations = operations;
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        if (transactionManager != null) {
+            this.readTemplate = new TransactionTemplate(transactionManager);
+            this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+            this.readTemplate.setReadOnly(true);
+            this.writeTemplate = new TransactionTemplate(transactionManager);
+            this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+        } else {
+            this.readTemplate = null;
+            this.writeTemplate = null;
+        }
+    }
+
+    @Override
+    public <T> ListenableFuture<T> load(final Class<T> type, final Long id) {
+        return submit(readTemplate, new Operation<T>() {
+            @Override
+            public T execute(Neo4jOperations operations) {
+                return operations.load(type, id);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<T> load(final Class<T> type, final Long id, final int depth) {
+        return submit(readTemplate, new Operation<T>() {
+            @Override
+            public T execute(Neo4jOperations operations) {
+                return operations.load(type, id, depth);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<Collection<T>> loadAll(final Class<T> type, final int depth) {
+        return submit(readTemplate, new Operation<Collection<T>>() {
+            @Override
+            public Collection<T> execute(Neo4jOperations operations) {
+                return operations.loadAll(type, depth);
+            }
+        });
+    }
+
+    /**
+     * Bounds the number of ids sent to the database in a single request by {@link #loadAll(Class, Collection, int)}.
+     * Larger collections of ids are then loaded in chunks, up to {@link #setLoadChunkParallelism(int)} of them at a
+     * time, each in a scope of its own, and the entities are returned in the order of their ids in the given
+     * collection. Chunks running on different threads load into different sessions, so an entity related to the
+     * entities of several chunks may come back as several instances.
+     *
+     * @param loadChunkSize The maximum number of ids loaded per request, or 0 to load all ids at once (the default)
+     */
+    public void setLoadChunkSize(int loadChunkSize) {
+        Assert.isTrue(loadChunkSize >= 0, "The load chunk size must not be negative");
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    public int getLoadChunkSize() {
+        return loadChunkSize;
+    }
+
+    /**
+     * @param loadChunkParallelism The maximum number of chunks of a single load by ids that run at the same time,
+     * {@value #DEFAULT_LOAD_CHUNK_PARALLELISM} by default
+     */
+    public void setLoadChunkParallelism(int loadChunkParallelism) {
+        Assert.isTrue(loadChunkParallelism > 0, "The load chunk parallelism must be positive");
+        this.loadChunkParallelism = loadChunkParallelism;
+    }
+
+    public int getLoadChunkParallelism() {
+        return loadChunkParallelism;
+    }
+
+    @Override
+    public <T> ListenableFuture<Collection<T>> loadAll(final Class<T> type, final Collection<Long> ids, final int depth) {
+        int chunkSize = loadChunkSize;
+        if (chunkSize > 0 && ids.size() > chunkSize) {
+            return new ChunkedLoad<>(type, LoadChunks.split(ids, chunkSize), depth).start(loadChunkParallelism);
+        }
+        return submit(readTemplate, new Operation<Collection<T>>() {
+            @Override
+            public Collection<T> execute(Neo4jOperations operations) {
+                return operations.loadAll(type, ids, depth);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<Collection<T>> loadAllByProperties(final Class<T> type, final Filters parameters, final int depth) {
+        return submit(readTemplate, new Operation<Collection<T>>() {
+            @Override
+            public Collection<T> execute(Neo4jOperations operations) {
+                return operations.loadAllByProperties(type, parameters, depth);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Result> query(final String cypher, final Map<String, ?> parameters) {
+        return submit(writeTemplate, new Operation<Result>() {
+            @Override
+            public Result execute(Neo4jOperations operations) {
+                return operations.query(cypher, parameters);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Result> query(final String cypher, final Map<String, ?> parameters, final boolean readOnly) {
+        return submit(readOnly ? readTemplate : writeTemplate, new Operation<Result>() {
+            @Override
+            public Result execute(Neo4jOperations operations) {
+                return operations.query(cypher, parameters, readOnly);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<Iterable<T>> queryForObjects(final Class<T> objectType, final String cypher, final Map<String, ?> parameters) {
+        return submit(readTemplate, new Operation<Iterable<T>>() {
+            @Override
+            public Iterable<T> execute(Neo4jOperations operations) {
+                return operations.queryForObjects(objectType, cypher, parameters);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<T> queryForObject(final Class<T> objectType, final String cypher, final Map<String, ?> parameters) {
+        return submit(readTemplate, new Operation<T>() {
+            @Override
+            public T execute(Neo4jOperations operations) {
+                return operations.queryForObject(objectType, cypher, parameters);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Long> count(final Class<?> entityClass) {
+        return submit(readTemplate, new Operation<Long>() {
+            @Override
+            public Long execute(Neo4jOperations operations) {
+                return operations.count(entityClass);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<T> save(final T entity) {
+        return submit(writeTemplate, new Operation<T>() {
+            @Override
+            public T execute(Neo4jOperations operations) {
+                return operations.save(entity);
+            }
+        });
+    }
+
+    @Override
+    public <T> ListenableFuture<T> save(final T entity, final int depth) {
+        return submit(writeTemplate, new Operation<T>() {
+            @Override
+            public T execute(Neo4jOperations operations) {
+                return operations.save(entity, depth);
+            }
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> delete(final Object entity) {
+        return submit(writeTemplate, new Operation<Void>() {
+            @Override
+            public Void execute(Neo4jOperations operations) {
+                operations.delete(entity);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private <T> ListenableFuture<T> submit(final TransactionTemplate transactionTemplate, final Operation<T> operation) {
+        return executor.submitListenable(new Callable<T>() {
+            @Override
+            public T call() {
+                if (transactionTemplate == null) {
+                    return operation.execute(operations);
+                }
+                return transactionTemplate.execute(new TransactionCallback<T>() {
+                    @Override
+                    public T doInTransaction(TransactionStatus status) {
+                        return operation.execute(operations);
+                    }
+                });
+            }
+        });
+    }
+
+    private static ThreadPoolTaskExecutor defaultExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(DEFAULT_POOL_SIZE);
+        executor.setMaxPoolSize(DEFAULT_POOL_SIZE);
+        executor.setQueueCapacity(DEFAULT_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("neo4j-async-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Loads the chunks of a load by ids, starting the next chunk whenever one completes, and completes with the
+     * entities of all chunks in order once the last one is loaded.
+     */
+    private class ChunkedLoad<T> implements ListenableFutureCallback<List<T>> {
+
+        private final Class<T> type;
+        private final List<List<Long>> chunks;
+        private final int depth;
+        private final AtomicReferenceArray<List<T>> results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final SettableListenableFuture<Collection<T>> future = new SettableListenableFuture<>();
+
+        ChunkedLoad(Class<T> type, List<List<Long>> chunks, int depth) {
+            this.type = type;
+            this.chunks = chunks;
+            this.depth = depth;
+            this.results = new AtomicReferenceArray<>(chunks.size());
+            this.remaining = new AtomicInteger(chunks.size());
+        }
+
+        ListenableFuture<Collection<T>> start(int parallelism) {
+            for (int i = 0; i < parallelism; i++) {
+                submitNext();
+            }
+            return future;
+        }
+
+        private void submitNext() {
+            final int index = next.getAndIncrement();
+            if (index >= chunks.size() || future.isDone()) {
+                return;
+            }
+            final List<Long> chunk = chunks.get(index);
+            try {
+                submit(readTemplate, new Operation<List<T>>() {
+                    @Override
+                    public List<T> execute(Neo4jOperations operations) {
+                        List<T> entities = LoadChunks.inIdOrder(operations.loadAll(type, chunk, depth), chunk, operations);
+                        results.set(index, entities);
+                        return entities;
+                    }
+                }).addCallback(this);
+            } catch (RuntimeException e) {
+                onFailure(e);
+            }
+        }
+
+        @Override
+        public void onSuccess(List<T> entities) {
+            if (remaining.decrementAndGet() > 0) {
+                submitNext();
+                return;
+            }
+            List<T> merged = new ArrayList<>();
+            for (int i = 0; i < results.length(); i++) {
+                merged.addAll(results.get(i));
+            }
+            future.set(merged);
+        }
+
+        @Override
+        public void onFailure(Throwable ex) {
+            future.setException(ex);
+        }
+    }
+
+    private interface Operation<T> {
+
+        T execute(Neo4jOperations operations);
+    }
+}
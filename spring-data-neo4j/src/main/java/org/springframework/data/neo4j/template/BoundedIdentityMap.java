@@ -0,0 +1,113 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+import org.neo4j.ogm.session.Session;
+
+/**
+ * Tracks the entities a {@link Neo4jTemplate} has handed out from, or saved through, a single session in least
+ * recently used order, and detaches the least recently used ones from the session once a size bound is exceeded.
+ *
+ * Entities saved while a transaction is open are pinned until the session is next used outside a transaction, so
+ * that pending changes are never dropped from the session's mapping context.
+ *
+ * @author Tobias Hartmann
+ */
+class BoundedIdentityMap {
+
+    private final LinkedHashMap<EntityKey, Boolean> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<EntityKey> pinned = new HashSet<>();
+
+    synchronized boolean contains(EntityKey key) {
+        return entries.get(key) != null;
+    }
+
+    /**
+     * Records the use of the given entity and evicts other entities until at most <code>maxSize</code> remain.
+     *
+     * @return the number of entities detached from the session
+     */
+    synchronized int track(Session session, EntityKey key, boolean inTransaction, int maxSize) {
+        if (inTransaction) {
+            pinned.add(key);
+        } else if (!pinned.isEmpty()) {
+            pinned.clear();
+        }
+        entries.put(key, Boolean.TRUE);
+
+        int evicted = 0;
+        Iterator<EntityKey> iterator = entries.keySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            EntityKey eldest = iterator.next();
+            if (eldest.equals(key) || pinned.contains(eldest)) {
+                continue;
+            }
+            iterator.remove();
+            if (eldest.relationship) {
+                session.detachRelationshipEntity(eldest.id);
+            } else {
+                session.detachNodeEntity(eldest.id);
+            }
+            evicted++;
+        }
+        return evicted;
+    }
+
+    synchronized void remove(EntityKey key) {
+        entries.remove(key);
+        pinned.remove(key);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        pinned.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    static class EntityKey {
+
+        private final long id;
+        private final boolean relationship;
+
+        EntityKey(long id, boolean relationship) {
+            this.id = id;
+            this.relationship = relationship;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof EntityKey)) {
+                return false;
+            }
+            EntityKey that = (EntityKey) o;
+            return id == that.id && relationship == that.relationship;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (int) (id ^ (id >>> 32)) + (relationship ? 1 : 0);
+        }
+    }
+}
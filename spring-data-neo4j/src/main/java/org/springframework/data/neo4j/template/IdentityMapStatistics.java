@@ -0,0 +1,70 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+/**
+ * A snapshot of how the session identity maps bounded by a {@link Neo4jTemplate} are used.
+ *
+ * A load by id is counted as a hit when the requested entity was already resident in the session, and as a miss
+ * otherwise.
+ *
+ * @author Tobias Hartmann
+ */
+public class IdentityMapStatistics {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long residentEntityCount;
+
+    public IdentityMapStatistics(long hitCount, long missCount, long evictionCount, long residentEntityCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.residentEntityCount = residentEntityCount;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the ratio of hits to loads by id, or 0 if nothing has been loaded yet
+     */
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of entities tracked across all live sessions used by the template
+     */
+    public long getResidentEntityCount() {
+        return residentEntityCount;
+    }
+
+    @Override
+    public String toString() {
+        return "IdentityMapStatistics{hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                + ", residentEntities=" + residentEntityCount + "}";
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.cypher.query.Pagination;
+import org.neo4j.ogm.cypher.query.SortOrder;
+import org.neo4j.ogm.model.QueryStatistics;
+import org.neo4j.ogm.model.Result;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.data.neo4j.metrics.MetricsUtils;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.util.Assert;
+
+/**
+ * Decorates a {@link Neo4jOperations} to record the time taken by each of its operations, the number of rows and
+ * entities it returns, and the exceptions it throws. Operations are tagged with the simple name of the class of the
+ * decorated operations, the name of the operation and the depth at which entities are loaded or saved, or
+ * {@link Neo4jMetrics#UNKNOWN} when no depth is given.
+ * <p>
+ * The entities counted are those returned at the top level of the results: the related entities loaded along with
+ * them are not counted.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class InstrumentedNeo4jOperations implements Neo4jOperations, ApplicationEventPublisherAware {
+
+    private final Neo4jOperations delegate;
+    private final Neo4jMetrics metrics;
+    private final String owner;
+
+    /**
+     * Constructs a new {@link InstrumentedNeo4jOperations} recording the operations of the given delegate.
+     *
+     * @param delegate The operations to record
+     * @param metrics  The recorder of the measurements
+     */
+    public InstrumentedNeo4jOperations(Neo4jOperations delegate, Neo4jMetrics metrics) {
+        Assert.notNull(delegate, "Cannot create an InstrumentedNeo4jOperations without Neo4jOperations!");
+        Assert.notNull(metrics, "Cannot create an InstrumentedNeo4jOperations without Neo4jMetrics!");
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.owner = delegate.getClass().getSimpleName();
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        if (delegate instanceof ApplicationEventPublisherAware) {
+            ((ApplicationEventPublisherAware) delegate).setApplicationEventPublisher(applicationEventPublisher);
+        }
+    }
+
+    Neo4jOperations getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id) {
+        long start = System.nanoTime();
+        try {
+            return recorded("load", Neo4jMetrics.UNKNOWN, start, delegate.load(type, id), true);
+        } catch (RuntimeException e) {
+            throw failed("load", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> T load(Class<T> type, Long id, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("load", depth, start, delegate.load(type, id, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("load", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", Neo4jMetrics.UNKNOWN, start, delegate.loadAll(type), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", depth, start, delegate.loadAll(type, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", depth, start, delegate.loadAll(type, sortOrder, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, Pagination pagination, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", depth, start, delegate.loadAll(type, sortOrder, pagination, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", depth, start, delegate.loadAll(type, ids, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Collection<T> objects, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", depth, start, delegate.loadAll(objects, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, SortOrder sortOrder, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAll", depth, start, delegate.loadAll(type, ids, sortOrder, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAll", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> boolean exists(Class<T> type, Long id) {
+        long start = System.nanoTime();
+        try {
+            boolean exists = delegate.exists(type, id);
+            recorded("exists", start);
+            return exists;
+        } catch (RuntimeException e) {
+            throw failed("exists", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> Set<Long> existingIds(Class<T> type, Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            return recorded("existingIds", Neo4jMetrics.UNKNOWN, start, delegate.existingIds(type, ids), false);
+        } catch (RuntimeException e) {
+            throw failed("existingIds", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> T loadByProperty(Class<T> type, String propertyName, Object propertyValue) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadByProperty", Neo4jMetrics.UNKNOWN, start,
+                    delegate.loadByProperty(type, propertyName, propertyValue), true);
+        } catch (RuntimeException e) {
+            throw failed("loadByProperty", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> T loadByProperty(Class<T> type, String propertyName, Object propertyValue, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadByProperty", depth, start,
+                    delegate.loadByProperty(type, propertyName, propertyValue, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadByProperty", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperty(Class<T> type, String propertyName, Object propertyValue) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAllByProperty", Neo4jMetrics.UNKNOWN, start,
+                    delegate.loadAllByProperty(type, propertyName, propertyValue), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAllByProperty", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperty(Class<T> type, String propertyName, Object propertyValue, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAllByProperty", depth, start,
+                    delegate.loadAllByProperty(type, propertyName, propertyValue, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAllByProperty", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> T loadByProperties(Class<T> type, Filters parameters) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadByProperties", Neo4jMetrics.UNKNOWN, start,
+                    delegate.loadByProperties(type, parameters), true);
+        } catch (RuntimeException e) {
+            throw failed("loadByProperties", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> T loadByProperties(Class<T> type, Filters parameters, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadByProperties", depth, start, delegate.loadByProperties(type, parameters, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadByProperties", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperties(Class<T> type, Filters parameters) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAllByProperties", Neo4jMetrics.UNKNOWN, start,
+                    delegate.loadAllByProperties(type, parameters), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAllByProperties", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> Collection<T> loadAllByProperties(Class<T> type, Filters parameters, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("loadAllByProperties", depth, start,
+                    delegate.loadAllByProperties(type, parameters, depth), true);
+        } catch (RuntimeException e) {
+            throw failed("loadAllByProperties", depth, start, e);
+        }
+    }
+
+    @Override
+    public <T> T save(T entity) {
+        long start = System.nanoTime();
+        try {
+            return recorded("save", Neo4jMetrics.UNKNOWN, start, delegate.save(entity), false);
+        } catch (RuntimeException e) {
+            throw failed("save", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> T save(T entity, int depth) {
+        long start = System.nanoTime();
+        try {
+            return recorded("save", depth, start, delegate.save(entity, depth), false);
+        } catch (RuntimeException e) {
+            throw failed("save", depth, start, e);
+        }
+    }
+
+    @Override
+    public void delete(Object entity) {
+        long start = System.nanoTime();
+        try {
+            delegate.delete(entity);
+            recorded("delete", start);
+        } catch (RuntimeException e) {
+            throw failed("delete", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> void deleteAll(Class<T> type) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteAll(type);
+            recorded("deleteAll", start);
+        } catch (RuntimeException e) {
+            throw failed("deleteAll", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> void deleteAll(Class<T> type, Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteAll(type, ids);
+            recorded("deleteAll", start);
+        } catch (RuntimeException e) {
+            throw failed("deleteAll", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public Long resolveGraphIdFor(Object entity) {
+        return delegate.resolveGraphIdFor(entity);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public Result query(String cypherQuery, Map<String, ?> params) {
+        long start = System.nanoTime();
+        try {
+            return recorded("query", Neo4jMetrics.UNKNOWN, start, delegate.query(cypherQuery, params), false);
+        } catch (RuntimeException e) {
+            throw failed("query", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> T queryForObject(Class<T> entityType, String cypherQuery, Map<String, ?> parameters) {
+        long start = System.nanoTime();
+        try {
+            return recorded("queryForObject", Neo4jMetrics.UNKNOWN, start,
+                    delegate.queryForObject(entityType, cypherQuery, parameters),
+                    MetricsUtils.isEntityType(entityType));
+        } catch (RuntimeException e) {
+            throw failed("queryForObject", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public <T> Iterable<T> queryForObjects(Class<T> entityType, String cypherQuery, Map<String, ?> parameters) {
+        long start = System.nanoTime();
+        try {
+            return recorded("queryForObjects", Neo4jMetrics.UNKNOWN, start,
+                    delegate.queryForObjects(entityType, cypherQuery, parameters),
+                    MetricsUtils.isEntityType(entityType));
+        } catch (RuntimeException e) {
+            throw failed("queryForObjects", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public Result query(String cypher, Map<String, ?> parameters, boolean readOnly) {
+        long start = System.nanoTime();
+        try {
+            return recorded("query", Neo4jMetrics.UNKNOWN, start, delegate.query(cypher, parameters, readOnly), false);
+        } catch (RuntimeException e) {
+            throw failed("query", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public long count(Class<?> entityClass) {
+        long start = System.nanoTime();
+        try {
+            long count = delegate.count(entityClass);
+            recorded("count", start);
+            return count;
+        } catch (RuntimeException e) {
+            throw failed("count", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public QueryStatistics execute(String cypherQuery) {
+        long start = System.nanoTime();
+        try {
+            QueryStatistics statistics = delegate.execute(cypherQuery);
+            recorded("execute", start);
+            return statistics;
+        } catch (RuntimeException e) {
+            throw failed("execute", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    @Override
+    public QueryStatistics execute(String cypher, Map<String, Object> parameters) {
+        long start = System.nanoTime();
+        try {
+            QueryStatistics statistics = delegate.execute(cypher, parameters);
+            recorded("execute", start);
+            return statistics;
+        } catch (RuntimeException e) {
+            throw failed("execute", Neo4jMetrics.UNKNOWN, start, e);
+        }
+    }
+
+    private <T> T recorded(String operation, int depth, long start, T result, boolean mapsEntities) {
+        return MetricsUtils.record(metrics, owner, operation, depth, start, result, mapsEntities);
+    }
+
+    private void recorded(String operation, long start) {
+        metrics.recordOperation(owner, operation, Neo4jMetrics.UNKNOWN, System.nanoTime() - start,
+                Neo4jMetrics.UNKNOWN, Neo4jMetrics.UNKNOWN);
+    }
+
+    /*
+     * Failures are recorded apart from the operations that completed, and the exception is returned to be rethrown.
+     */
+    private RuntimeException failed(String operation, int depth, long start, RuntimeException e) {
+        MetricsUtils.recordFailure(metrics, owner, operation, depth, start, e);
+        return e;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+
+/**
+ * A cold {@link Publisher} emitting the elements of an {@link Iterable} produced asynchronously.
+ *
+ * The source is only opened once a subscriber first requests data, separately for every subscriber. Elements are
+ * emitted no faster than they are requested, either on the thread completing the source or on the thread calling
+ * {@link Subscription#request(long)}, but never concurrently. A request for fewer than one element is signalled as an
+ * {@link IllegalArgumentException}, and requests made after cancelling are ignored.
+ *
+ * @author Tobias Hartmann
+ */
+class IterablePublisher<T> implements Publisher<T> {
+
+    private final Source<T> source;
+
+    IterablePublisher(Source<T> source) {
+        this.source = source;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        subscriber.onSubscribe(new IterableSubscription<>(source, subscriber));
+    }
+
+    /**
+     * Starts the work producing the elements to publish.
+     */
+    interface Source<T> {
+
+        ListenableFuture<? extends Iterable<T>> open();
+    }
+
+    private static class IterableSubscription<T> implements Subscription, ListenableFutureCallback<Iterable<T>> {
+
+        private final Source<T> source;
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean opened = new AtomicBoolean();
+
+        private volatile Iterator<T> iterator;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        IterableSubscription(Source<T> source, Subscriber<? super T> subscriber) {
+            this.source = source;
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (cancelled) {
+                return;
+            }
+            if (n <= 0) {
+                onFailure(new IllegalArgumentException("Requested number of elements must be positive, was " + n));
+                return;
+            }
+            long current;
+            do {
+                current = requested.get();
+            } while (!requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+
+            if (opened.compareAndSet(false, true)) {
+                try {
+                    source.open().addCallback(this);
+                } catch (RuntimeException e) {
+                    onFailure(e);
+                }
+            } else {
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void onSuccess(Iterable<T> result) {
+            iterator = result != null ? result.iterator() : Collections.<T>emptyIterator();
+            drain();
+        }
+
+        @Override
+        public void onFailure(Throwable ex) {
+            error = ex;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done && !cancelled) {
+                    emit();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            if (error != null) {
+                done = true;
+                subscriber.onError(error);
+                return;
+            }
+            if (iterator == null) {
+                return;
+            }
+            long emitted = 0;
+            long demand = requested.get();
+            try {
+                while (!cancelled) {
+                    if (!iterator.hasNext()) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    if (emitted == demand) {
+                        break;
+                    }
+                    subscriber.onNext(iterator.next());
+                    emitted++;
+                }
+            } catch (RuntimeException e) {
+                done = true;
+                subscriber.onError(e);
+                return;
+            }
+            if (demand != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.neo4j.util.IterableUtils;
+
+/**
+ * Helpers for loading entities by id in chunks of bounded size.
+ *
+ * @author Tobias Hartmann
+ */
+final class LoadChunks {
+
+    private LoadChunks() {
+    }
+
+    /**
+     * Splits the given ids into chunks of at most <code>chunkSize</code> ids, in their original order and without
+     * duplicates, so that no id is loaded twice.
+     */
+    static List<List<Long>> split(Collection<Long> ids, int chunkSize) {
+        return IterableUtils.partition(new LinkedHashSet<>(ids), chunkSize);
+    }
+
+    /**
+     * Orders the entities loaded for a chunk as their ids appear in the chunk. Ids without an entity are skipped.
+     */
+    static <T> List<T> inIdOrder(Iterable<T> entities, List<Long> ids, Neo4jOperations operations) {
+        Map<Long, T> entitiesById = new HashMap<>();
+        for (T entity : entities) {
+            entitiesById.put(operations.resolveGraphIdFor(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(entitiesById.size());
+        for (Long id : ids) {
+            T entity = entitiesById.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+}
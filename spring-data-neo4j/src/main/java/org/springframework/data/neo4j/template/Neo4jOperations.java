@@ -25,6 +25,7 @@ import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Spring Data operations interface, implemented by {@link Neo4jTemplate}, that provides the API for using
@@ -134,6 +135,24 @@ public interface Neo4jOperations {
      */
     <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, SortOrder sortOrder, int depth);
 
+    /**
+     * Checks whether an entity of the given type with the specified ID exists in the database, without loading it.
+     *
+     * @param type The type of entity to look for
+     * @param id   The ID of the node or relationship to match
+     * @return <code>true</code> if a matching node or relationship exists, <code>false</code> otherwise
+     */
+    <T> boolean exists(Class<T> type, Long id);
+
+    /**
+     * Checks which of the given IDs belong to entities of the given type that exist in the database, without loading them.
+     *
+     * @param type The type of entity to look for
+     * @param ids  The IDs of the nodes or relationships to match
+     * @return The {@link Set} of IDs among those given that match an existing entity, never <code>null</code>
+     */
+    <T> Set<Long> existingIds(Class<T> type, Collection<Long> ids);
+
     /**
      * Retrieves the entity of the specified type that contains a property matching the given name with the given value.
      * This method assumes that the requested property/value combination will be unique for all entities of this type in
@@ -277,6 +296,31 @@ public interface Neo4jOperations {
      */
     <T> void deleteAll(Class<T> type);
 
+    /**
+     * Removes the nodes or relationship entities of a specific type that have the given IDs from the graph with a single
+     * statement, without loading them first.  Nodes are removed together with all of their relationships, and any of
+     * the deleted nodes and relationships known to the current session are detached from it.
+     * <p>
+     * As the entities aren't loaded, this method publishes a
+     * {@link org.springframework.data.neo4j.event.BeforeDeleteByIdEvent} and an
+     * {@link org.springframework.data.neo4j.event.AfterDeleteByIdEvent} carrying the type and IDs, rather than the
+     * {@link org.springframework.data.neo4j.event.BeforeDeleteEvent} and
+     * {@link org.springframework.data.neo4j.event.AfterDeleteEvent} published when deleting an entity.
+     * </p>
+     *
+     * @param type the type of entity to delete
+     * @param ids  the IDs of the nodes or relationships to delete
+     */
+    <T> void deleteAll(Class<T> type, Collection<Long> ids);
+
+    /**
+     * Resolves the graph ID of the given object.
+     *
+     * @param entity The object whose ID to resolve
+     * @return The graph ID of the entity or <code>null</code> if the object is not a persisted entity
+     */
+    Long resolveGraphIdFor(Object entity);
+
     /**
      * Removes all mapping information from the current session
      */
@@ -22,17 +22,38 @@ import org.neo4j.ogm.model.QueryStatistics;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.Utils;
+import org.neo4j.ogm.transaction.Transaction;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.neo4j.event.*;
+import org.springframework.data.neo4j.metrics.MetricsUtils;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
+import org.springframework.data.neo4j.template.BoundedIdentityMap.EntityKey;
+import org.springframework.data.neo4j.transaction.SessionProxy;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.springframework.data.neo4j.util.IterableUtils.getSingle;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.isRelationshipEntity;
+import static org.springframework.data.neo4j.util.GraphEntityUtils.pattern;
 import static org.springframework.data.neo4j.util.IterableUtils.getSingleOrNull;
 
 /**
@@ -44,6 +65,25 @@ import static org.springframework.data.neo4j.util.IterableUtils.getSingleOrNull;
  * Note that this class also implements {@link ApplicationEventPublisherAware} and will publish events before data manipulation
  * operations - specifically delete and save.
  * </p>
+ * <p>
+ * By default the mapping context of the underlying session grows until it is cleared. Use
+ * {@link #setMaxResidentEntities(int)} to bound the number of entities the template keeps resident in each session;
+ * the least recently used ones are then detached automatically, and {@link #getIdentityMapStatistics()} reports how
+ * the bounded identity maps are used.
+ * </p>
+ * <p>
+ * Saves can be deferred until the end of the enclosing transaction and sent to the database in as few requests as
+ * possible, see {@link #setWriteBehind(boolean)}.
+ * </p>
+ * <p>
+ * Inside a read-only Spring transaction, saves, deletes and {@code execute} calls are rejected with an
+ * {@link InvalidDataAccessApiUsageException} and Cypher queries are run read-only.
+ * </p>
+ * <p>
+ * Slow Cypher queries can be logged with {@link #setSlowQueryLog(SlowQueryLog)}. The time taken by each operation, the
+ * number of rows and entities it returns, and the exceptions it throws can be recorded by wrapping the template in an
+ * {@link InstrumentedNeo4jOperations}.
+ * </p>
  * Please note also that all methods on this class throw a {@link DataAccessException} if any underlying {@code Exception} is
  * thrown. Since {@link DataAccessException} is a runtime exception, this is not documented at the method level.
  *
@@ -53,9 +93,20 @@ import static org.springframework.data.neo4j.util.IterableUtils.getSingleOrNull;
  */
 public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisherAware {
 
+    private static final String SOURCE = Neo4jTemplate.class.getSimpleName();
+
     private final Session session;
     private ApplicationEventPublisher applicationEventPublisher;
 
+    private final Map<Session, BoundedIdentityMap> identityMaps = Collections.synchronizedMap(new WeakHashMap<Session, BoundedIdentityMap>());
+    private final AtomicLong identityMapHits = new AtomicLong();
+    private final AtomicLong identityMapMisses = new AtomicLong();
+    private final AtomicLong identityMapEvictions = new AtomicLong();
+    private volatile int maxResidentEntities;
+    private volatile boolean writeBehind;
+    private volatile int loadChunkSize;
+    private volatile SlowQueryLog slowQueryLog;
+
     /**
      * Constructs a new {@link Neo4jTemplate} based on the given Neo4j OGM {@link Session}.
      *
@@ -72,56 +123,184 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
         this.applicationEventPublisher = applicationEventPublisher;
     }
 
+    Session getSession() {
+        return session;
+    }
+
+    /**
+     * Bounds the number of entities this template keeps resident in the mapping context of each session. When the
+     * bound is exceeded, the least recently used entities are detached from the session, except for entities saved
+     * in a transaction that is still open. With a shared session, only the entities handed out or saved within a
+     * transaction are tracked, and forgotten once it completes.
+     *
+     * @param maxResidentEntities The maximum number of resident entities per session, or 0 for no bound (the default)
+     */
+    public void setMaxResidentEntities(int maxResidentEntities) {
+        Assert.isTrue(maxResidentEntities >= 0, "The maximum number of resident entities must not be negative");
+        this.maxResidentEntities = maxResidentEntities;
+    }
+
+    public int getMaxResidentEntities() {
+        return maxResidentEntities;
+    }
+
+    /**
+     * Enables write-behind mode. Entities saved inside a Spring transaction are then only recorded, and pushed to the
+     * database together when the transaction commits, when it is flushed, or before the template or a repository query
+     * method next reads from or otherwise writes to the database. Saving the same entity several times before that
+     * results in a single save. {@link AfterSaveEvent}s are published once the entities have actually been saved, and
+     * new entities are only assigned their ids at that point.
+     *
+     * @param writeBehind <code>true</code> to defer saves made inside transactions, <code>false</code> (the default)
+     * to save immediately
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Bounds the number of ids sent to the database in a single request by {@link #loadAll(Class, Collection, int)}.
+     * Larger collections of ids are then loaded in consecutive chunks, and the entities are returned in the order of
+     * their ids in the given collection. All chunks load into the same session, so entities related to the entities of
+     * several chunks come back as a single instance: for a shared session, that is the session of the current
+     * transaction, or the session of the current thread outside a transaction.
+     *
+     * @param loadChunkSize The maximum number of ids loaded per request, or 0 to load all ids at once (the default)
+     */
+    public void setLoadChunkSize(int loadChunkSize) {
+        Assert.isTrue(loadChunkSize >= 0, "The load chunk size must not be negative");
+        this.loadChunkSize = loadChunkSize;
+    }
+
+    public int getLoadChunkSize() {
+        return loadChunkSize;
+    }
+
+    /**
+     * Logs the Cypher queries run by {@code query}, {@code queryForObject} and {@code queryForObjects} that are slower
+     * than the threshold of the given log.
+     *
+     * @param slowQueryLog The log of slow queries, or <code>null</code> not to log them (the default)
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Returns the usage statistics of the bounded identity maps. Nothing is recorded while the identity maps are
+     * unbounded.
+     *
+     * @return A snapshot of the identity map statistics
+     */
+    public IdentityMapStatistics getIdentityMapStatistics() {
+        long resident = 0;
+        synchronized (identityMaps) {
+            for (BoundedIdentityMap identityMap : identityMaps.values()) {
+                resident += identityMap.size();
+            }
+        }
+        return new IdentityMapStatistics(identityMapHits.get(), identityMapMisses.get(), identityMapEvictions.get(), resident);
+    }
+
     @Override
     public <T> T load(Class<T> type, Long id) {
-        return session.load(type, id);
+        flushPendingSaves();
+        recordLoad(type, id);
+        return track(session.load(type, id), false);
     }
 
     @Override
     public <T> T load(Class<T> type, Long id, int depth) {
-        return session.load(type, id, depth);
+        flushPendingSaves();
+        recordLoad(type, id);
+        return track(session.load(type, id, depth), false);
     }
 
     public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids) {
-        return session.loadAll(type, ids);
+        return loadAll(type, ids, 1);
     }
 
     public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, int depth) {
-        return session.loadAll(type, ids, depth);
+        flushPendingSaves();
+        int chunkSize = loadChunkSize;
+        if (chunkSize == 0 || ids.size() <= chunkSize) {
+            return trackAll(session.loadAll(type, ids, depth));
+        }
+        List<T> entities = new ArrayList<>(ids.size());
+        for (List<Long> chunk : LoadChunks.split(ids, chunkSize)) {
+            entities.addAll(LoadChunks.inIdOrder(trackAll(session.loadAll(type, chunk, depth)), chunk, this));
+        }
+        return entities;
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type) {
-        return session.loadAll(type);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type));
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type, int depth) {
-        return session.loadAll(type, depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, depth));
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, int depth) {
-        return session.loadAll(type, sortOrder, depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, sortOrder, depth));
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type, SortOrder sortOrder, Pagination pagination, int depth) {
-        return session.loadAll(type, sortOrder, pagination, depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, sortOrder, pagination, depth));
     }
 
     public <T> Collection<T> loadAll(Collection<T> objects) {
-        return session.loadAll(objects);
+        flushPendingSaves();
+        return trackAll(session.loadAll(objects));
     }
 
     @Override
     public <T> Collection<T> loadAll(Collection<T> objects, int depth) {
-        return session.loadAll(objects, depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(objects, depth));
     }
 
     @Override
     public <T> Collection<T> loadAll(Class<T> type, Collection<Long> ids, SortOrder sortOrder, int depth) {
-        return session.loadAll(type, ids, sortOrder, depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, ids, sortOrder, depth));
+    }
+
+    @Override
+    public <T> boolean exists(Class<T> type, Long id) {
+        flushPendingSaves();
+        String cypher = "MATCH " + pattern(type, "n") + " WHERE ID(n) = {id} RETURN ID(n) AS id LIMIT 1";
+        return session.query(cypher, Collections.singletonMap("id", id), true).queryResults().iterator().hasNext();
+    }
+
+    @Override
+    public <T> Set<Long> existingIds(Class<T> type, Collection<Long> ids) {
+        flushPendingSaves();
+        Set<Long> existing = new HashSet<>();
+        if (ids.isEmpty()) {
+            return existing;
+        }
+        String cypher = "MATCH " + pattern(type, "n") + " WHERE ID(n) IN {ids} RETURN ID(n) AS id";
+        for (Map<String, Object> row : session.query(cypher, Collections.singletonMap("ids", ids), true).queryResults()) {
+            existing.add(((Number) row.get("id")).longValue());
+        }
+        return existing;
     }
 
     @Override
@@ -140,7 +319,8 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
 
     @Override
     public <T> Collection<T> loadAllByProperty(Class<T> type, String name, Object value) {
-        return session.loadAll(type, new Filter(name, value));
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, new Filter(name, value)));
     }
 
     @Override
@@ -160,16 +340,21 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
 
     @Override
     public <T> Collection<T> loadAllByProperties(Class<T> type, Filters parameters, int depth) {
-        return session.loadAll(type, parameters, depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, parameters, depth));
     }
 
     public <T> Collection<T> loadAllByProperty(Class<T> type, String name, Object value, int depth) {
-        return session.loadAll(type, new Filter(name, value), depth);
+        flushPendingSaves();
+        return trackAll(session.loadAll(type, new Filter(name, value), depth));
     }
 
     @Override
     public void delete(Object entity) {
+        flushPendingSaves();
+        assertWritable();
         publishEvent(new BeforeDeleteEvent(this, entity));
+        untrack(entity);
         session.delete(entity);
         publishEvent(new AfterDeleteEvent(this, entity));
     }
@@ -177,70 +362,375 @@ public class Neo4jTemplate implements Neo4jOperations, ApplicationEventPublisher
     @Override
     public void clear() {
         session.clear();
+        clearIdentityMap();
     }
 
     public <T> void deleteAll(Class<T> type) {
+        flushPendingSaves();
+        assertWritable();
         session.deleteAll(type);
     }
 
+    @Override
+    public <T> void deleteAll(Class<T> type, Collection<Long> ids) {
+        flushPendingSaves();
+        if (ids.isEmpty()) {
+            return;
+        }
+        assertWritable();
+        publishEvent(new BeforeDeleteByIdEvent(this, type, ids));
+
+        boolean relationshipEntity = isRelationshipEntity(type);
+        BoundedIdentityMap identityMap = identityMaps.get(trackedSession());
+        if (relationshipEntity) {
+            session.query("MATCH " + pattern(type, "r") + " WHERE ID(r) IN {ids} DELETE r", Collections.singletonMap("ids", ids));
+        } else {
+            // the ids of the relationships are collected before they are deleted, so that they can be detached too
+            String cypher = "MATCH " + pattern(type, "n") + " WHERE ID(n) IN {ids} OPTIONAL MATCH (n)-[r]-()"
+                    + " WITH collect(DISTINCT n) AS nodes, collect(DISTINCT r) AS relationships, collect(DISTINCT ID(r)) AS relationshipIds"
+                    + " FOREACH (r IN relationships | DELETE r) FOREACH (n IN nodes | DELETE n)"
+                    + " WITH relationshipIds UNWIND relationshipIds AS id RETURN id";
+            for (Map<String, Object> row : session.query(cypher, Collections.singletonMap("ids", ids)).queryResults()) {
+                Long relationshipId = ((Number) row.get("id")).longValue();
+                if (identityMap != null) {
+                    identityMap.remove(new EntityKey(relationshipId, true));
+                }
+                session.detachRelationshipEntity(relationshipId);
+            }
+        }
+        for (Long id : ids) {
+            if (identityMap != null) {
+                identityMap.remove(new EntityKey(id, relationshipEntity));
+            }
+            if (relationshipEntity) {
+                session.detachRelationshipEntity(id);
+            } else {
+                session.detachNodeEntity(id);
+            }
+        }
+        publishEvent(new AfterDeleteByIdEvent(this, type, ids));
+    }
+
+    @Override
+    public Long resolveGraphIdFor(Object entity) {
+        return session.resolveGraphIdFor(entity);
+    }
+
     @Override
     public QueryStatistics execute(String jsonStatements) {
-        return session.query(jsonStatements, Utils.map()).queryStatistics();
+        return execute(jsonStatements, Utils.map());
     }
 
     @Override
     public QueryStatistics execute(String cypher, Map<String, Object> parameters) {
+        flushPendingSaves();
+        assertWritable();
         return session.query(cypher, parameters).queryStatistics();
     }
 
     public void purgeSession() {
         session.clear();
+        clearIdentityMap();
     }
 
     @Override
     public <T> T save(T entity) {
+        checkTransactionTimeout();
+        assertWritable();
         publishEvent(new BeforeSaveEvent(this, entity));
+        if (deferSave(entity, -1)) {
+            return entity;
+        }
         session.save(entity);
+        track(entity, true);
         publishEvent(new AfterSaveEvent(this, entity));
         return entity;
     }
 
     public <T> T save(T entity, int depth) {
+        checkTransactionTimeout();
+        assertWritable();
         publishEvent(new BeforeSaveEvent(this, entity));
+        if (deferSave(entity, depth)) {
+            return entity;
+        }
         session.save(entity, depth);
+        track(entity, true);
         publishEvent(new AfterSaveEvent(this, entity));
         return entity;
     }
 
+    /**
+     * Pushes the saves deferred in write-behind mode to the database. Does nothing if no saves are pending.
+     *
+     * @see #setWriteBehind(boolean)
+     */
+    public void flush() {
+        flushPendingSaves();
+    }
+
     @Override
     public Result query(String cypher, Map<String, ?> parameters) {
-        return session.query(cypher, parameters);
+        return query(cypher, parameters, TransactionSynchronizationManager.isCurrentTransactionReadOnly());
     }
 
     @Override
     public <T> Iterable<T> queryForObjects(Class<T> objectType, String cypher, Map<String, ?> parameters) {
-        return session.query(objectType, cypher, parameters);
+        long start = System.nanoTime();
+        flushPendingSaves();
+        Iterable<T> objects = trackAll(session.query(objectType, cypher, parameters));
+        recordIfSlow("queryForObjects", cypher, parameters, start, objects);
+        return objects;
     }
 
     @Override
     public Result query(String cypher, Map<String, ?> parameters, boolean readOnly) {
-        return session.query(cypher, parameters, readOnly);
+        long start = System.nanoTime();
+        flushPendingSaves();
+        Result result = session.query(cypher, parameters, readOnly);
+        recordIfSlow("query", cypher, parameters, start, result);
+        return result;
     }
 
     @Override
     public <T> T queryForObject(Class<T> objectType, String cypher, Map<String, ?> parameters) {
-        return session.queryForObject(objectType, cypher, parameters);
+        long start = System.nanoTime();
+        flushPendingSaves();
+        T object = track(session.queryForObject(objectType, cypher, parameters), false);
+        recordIfSlow("queryForObject", cypher, parameters, start, object);
+        return object;
     }
 
     @Override
     public long count(Class<?> entityClass) {
+        flushPendingSaves();
         return session.countEntitiesOfType(entityClass);
     }
 
-    private void publishEvent(Neo4jDataManipulationEvent event) {
+    private boolean deferSave(Object entity, int depth) {
+        if (!writeBehind || !TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        WriteBehindQueue queue = (WriteBehindQueue) TransactionSynchronizationManager.getResource(this);
+        if (queue == null) {
+            queue = new WriteBehindQueue();
+            TransactionSynchronizationManager.bindResource(this, queue);
+            TransactionSynchronizationManager.registerSynchronization(queue);
+        }
+        queue.add(entity, depth);
+        return true;
+    }
+
+    private void flushPendingSaves() {
+        checkTransactionTimeout();
+        if (writeBehind && TransactionSynchronizationManager.isSynchronizationActive()) {
+            WriteBehindQueue queue = (WriteBehindQueue) TransactionSynchronizationManager.getResource(this);
+            if (queue != null) {
+                queue.flush();
+            }
+        }
+    }
+
+    private void recordIfSlow(String operation, String cypher, Map<String, ?> parameters, long start, Object result) {
+        SlowQueryLog log = slowQueryLog;
+        if (log != null) {
+            log.record(SOURCE + "." + operation, cypher, parameters, System.nanoTime() - start, MetricsUtils.rows(result));
+        }
+    }
+
+    private <T> void recordLoad(Class<T> type, Long id) {
+        if (maxResidentEntities == 0 || id == null) {
+            return;
+        }
+        BoundedIdentityMap identityMap = identityMaps.get(trackedSession());
+        if (identityMap != null && identityMap.contains(new EntityKey(id, isRelationshipEntity(type)))) {
+            identityMapHits.incrementAndGet();
+        } else {
+            identityMapMisses.incrementAndGet();
+        }
+    }
+
+    private <C extends Iterable<?>> C trackAll(C entities) {
+        if (maxResidentEntities > 0 && entities instanceof Collection) {
+            for (Object entity : entities) {
+                track(entity, false);
+            }
+        }
+        return entities;
+    }
+
+    private <T> T track(T entity, boolean saved) {
+        int maxSize = maxResidentEntities;
+        if (maxSize == 0 || entity == null) {
+            return entity;
+        }
+        if (entity instanceof Iterable) {
+            for (Object element : (Iterable<?>) entity) {
+                track(element, saved);
+            }
+            return entity;
+        }
+        final Session target = trackedSession();
+        Long id = target != null ? target.resolveGraphIdFor(entity) : null;
+        if (id == null) {
+            return entity;
+        }
+        BoundedIdentityMap identityMap;
+        synchronized (identityMaps) {
+            identityMap = identityMaps.get(target);
+            if (identityMap == null) {
+                identityMap = new BoundedIdentityMap();
+                identityMaps.put(target, identityMap);
+                if (target != session) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            identityMaps.remove(target);
+                        }
+                    });
+                }
+            }
+        }
+        EntityKey key = new EntityKey(id, isRelationshipEntity(entity.getClass()));
+        int evicted = identityMap.track(target, key, saved && isTransactionOpen(target), maxSize);
+        if (evicted > 0) {
+            identityMapEvictions.addAndGet(evicted);
+        }
+        return entity;
+    }
+
+    private void untrack(Object entity) {
+        if (maxResidentEntities == 0 || entity == null) {
+            return;
+        }
+        Session target = trackedSession();
+        BoundedIdentityMap identityMap = identityMaps.get(target);
+        Long id = identityMap != null ? target.resolveGraphIdFor(entity) : null;
+        if (id != null) {
+            identityMap.remove(new EntityKey(id, isRelationshipEntity(entity.getClass())));
+        }
+    }
+
+    private void clearIdentityMap() {
+        BoundedIdentityMap identityMap = identityMaps.get(trackedSession());
+        if (identityMap != null) {
+            identityMap.clear();
+        }
+    }
+
+    /*
+     * The entities of a shared session are only tracked within a transaction, which has a single session bound to it
+     * until it completes.
+     */
+    private Session trackedSession() {
+        if (!(session instanceof SessionProxy)) {
+            return session;
+        }
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? ((SessionProxy) session).getTargetSession() : null;
+    }
+
+    /*
+     * A transaction begun by a Neo4jTransactionManager on the same session is bound under it, and is rolled back once
+     * its deadline has passed. Checking it before each operation saves sending statements that are bound to be lost.
+     */
+    private void checkTransactionTimeout() {
+        Object resource = TransactionSynchronizationManager.getResource(session);
+        if (resource instanceof ResourceHolderSupport && ((ResourceHolderSupport) resource).hasTimeout()) {
+            ((ResourceHolderSupport) resource).getTimeToLiveInMillis();
+        }
+    }
+
+    private static void assertWritable() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            throw new InvalidDataAccessApiUsageException("Cannot write to the graph in a read-only transaction");
+        }
+    }
+
+    private static boolean isTransactionOpen(Session session) {
+        Transaction tx = session.getTransaction();
+        return tx != null && tx.status() == Transaction.Status.OPEN;
+    }
+
+    private void publishEvent(ApplicationEvent event) {
         if (this.applicationEventPublisher != null) {
             this.applicationEventPublisher.publishEvent(event);
         }
     }
 
+
+    /**
+     * The saves deferred by a write-behind template within one transaction, in the order they were first requested.
+     */
+    private class WriteBehindQueue extends TransactionSynchronizationAdapter {
+
+        private final Map<Object, Integer> depths = new IdentityHashMap<>();
+        private final List<Object> entities = new ArrayList<>();
+
+        void add(Object entity, int depth) {
+            if (entity instanceof Iterable) {
+                for (Object element : (Iterable<?>) entity) {
+                    add(element, depth);
+                }
+                return;
+            }
+            Integer pending = depths.get(entity);
+            if (pending == null) {
+                entities.add(entity);
+                depths.put(entity, depth);
+            } else if (pending >= 0 && (depth < 0 || depth > pending)) {
+                depths.put(entity, depth);
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (entities.isEmpty()) {
+                return;
+            }
+            Map<Integer, List<Object>> byDepth = new LinkedHashMap<>();
+            for (Object entity : entities) {
+                Integer depth = depths.get(entity);
+                List<Object> batch = byDepth.get(depth);
+                if (batch == null) {
+                    batch = new ArrayList<>();
+                    byDepth.put(depth, batch);
+                }
+                batch.add(entity);
+            }
+            entities.clear();
+            depths.clear();
+
+            for (Map.Entry<Integer, List<Object>> batch : byDepth.entrySet()) {
+                session.save(batch.getValue(), batch.getKey());
+                for (Object entity : batch.getValue()) {
+                    track(entity, true);
+                    publishEvent(new AfterSaveEvent(Neo4jTemplate.this, entity));
+                }
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            flush();
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(Neo4jTemplate.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(Neo4jTemplate.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            entities.clear();
+            depths.clear();
+            TransactionSynchronizationManager.unbindResourceIfPossible(Neo4jTemplate.this);
+        }
+    }
 }
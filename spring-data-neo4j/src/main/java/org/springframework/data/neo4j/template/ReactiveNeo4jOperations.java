@@ -0,0 +1,81 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.neo4j.ogm.cypher.Filters;
+import org.reactivestreams.Publisher;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link Neo4jOperations}, implemented by {@link ReactiveNeo4jTemplate}. Every operation
+ * returns a cold {@link Publisher}: nothing is sent to the database until a subscriber requests data, and results are
+ * emitted no faster than they are requested.
+ * <p>
+ * Operations returning a single value emit at most one element; {@link #delete(Object)} completes without emitting.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ * @see Neo4jOperations
+ * @see AsyncNeo4jOperations
+ */
+public interface ReactiveNeo4jOperations {
+
+    /**
+     * @see Neo4jOperations#load(Class, Long, int)
+     */
+    <T> Publisher<T> load(Class<T> type, Long id, int depth);
+
+    /**
+     * @see Neo4jOperations#loadAll(Class, int)
+     */
+    <T> Publisher<T> loadAll(Class<T> type, int depth);
+
+    /**
+     * @see Neo4jOperations#loadAll(Class, Collection, int)
+     */
+    <T> Publisher<T> loadAll(Class<T> type, Collection<Long> ids, int depth);
+
+    /**
+     * @see Neo4jOperations#loadAllByProperties(Class, Filters, int)
+     */
+    <T> Publisher<T> loadAllByProperties(Class<T> type, Filters parameters, int depth);
+
+    /**
+     * Runs the given Cypher query in a transaction of its own and emits its rows as they are requested.
+     *
+     * @see Neo4jOperations#query(String, Map)
+     */
+    Publisher<Map<String, Object>> query(String cypher, Map<String, ?> parameters);
+
+    /**
+     * @see Neo4jOperations#queryForObjects(Class, String, Map)
+     */
+    <T> Publisher<T> queryForObjects(Class<T> objectType, String cypher, Map<String, ?> parameters);
+
+    /**
+     * @see Neo4jOperations#count(Class)
+     */
+    Publisher<Long> count(Class<?> entityClass);
+
+    /**
+     * @see Neo4jOperations#save(Object, int)
+     */
+    <T> Publisher<T> save(T entity, int depth);
+
+    /**
+     * @see Neo4jOperations#delete(Object)
+     */
+    Publisher<Void> delete(Object entity);
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.template;
+
+import org.neo4j.ogm.cypher.Filters;
+import org.neo4j.ogm.model.Result;
+import org.reactivestreams.Publisher;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureAdapter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Implementation of {@link ReactiveNeo4jOperations} publishing the results of an {@link AsyncNeo4jOperations}.
+ * <p>
+ * Subscribing never blocks the calling thread: the operation is submitted to the executor of the
+ * {@link AsyncNeo4jTemplate} when data is first requested, and its results are then emitted as they are requested.
+ * Every subscription runs the operation again, in a scope of its own.
+ * </p>
+ *
+ * @author Tobias Hartmann
+ */
+public class ReactiveNeo4jTemplate implements ReactiveNeo4jOperations {
+
+    private final AsyncNeo4jOperations operations;
+
+    /**
+     * Constructs a new {@link ReactiveNeo4jTemplate} publishing the results of the given asynchronous operations.
+     *
+     * @param operations The asynchronous operations run for each subscription
+     */
+    public ReactiveNeo4jTemplate(AsyncNeo4jOperations operations) {
+        Assert.notNull(operations, "Cannot create a ReactiveNeo4jTemplate without AsyncNeo4jOperations!");
+        this.operations = operations;
+    }
+
+    @Override
+    public <T> Publisher<T> load(final Class<T> type, final Long id, final int depth) {
+        return new IterablePublisher<>(new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<Iterable<T>> open() {
+                return single(operations.load(type, id, depth));
+            }
+        });
+    }
+
+    @Override
+    public <T> Publisher<T> loadAll(final Class<T> type, final int depth) {
+        return new IterablePublisher<>(new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<Collection<T>> open() {
+                return operations.loadAll(type, depth);
+            }
+        });
+    }
+
+    @Override
+    public <T> Publisher<T> loadAll(final Class<T> type, final Collection<Long> ids, final int depth) {
+        return new IterablePublisher<>(new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<Collection<T>> open() {
+                return operations.loadAll(type, ids, depth);
+            }
+        });
+    }
+
+    @Override
+    public <T> Publisher<T> loadAllByProperties(final Class<T> type, final Filters parameters, final int depth) {
+        return new IterablePublisher<>(new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<Collection<T>> open() {
+                return operations.loadAllByProperties(type, parameters, depth);
+            }
+        });
+    }
+
+    @Override
+    public Publisher<Map<String, Object>> query(final String cypher, final Map<String, ?> parameters) {
+        return new IterablePublisher<>(new IterablePublisher.Source<Map<String, Object>>() {
+            @Override
+            public ListenableFuture<Iterable<Map<String, Object>>> open() {
+                return new ListenableFutureAdapter<Iterable<Map<String, Object>>, Result>(operations.query(cypher, parameters)) {
+                    @Override
+                    protected Iterable<Map<String, Object>> adapt(Result result) throws ExecutionException {
+                        return result.queryResults();
+                    }
+                };
+            }
+        });
+    }
+
+    @Override
+    public <T> Publisher<T> queryForObjects(final Class<T> objectType, final String cypher, final Map<String, ?> parameters) {
+        return new IterablePublisher<>(new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<Iterable<T>> open() {
+                return operations.queryForObjects(objectType, cypher, parameters);
+            }
+        });
+    }
+
+    @Override
+    public Publisher<Long> count(final Class<?> entityClass) {
+        return new IterablePublisher<>(new IterablePublisher.Source<Long>() {
+            @Override
+            public ListenableFuture<Iterable<Long>> open() {
+                return single(operations.count(entityClass));
+            }
+        });
+    }
+
+    @Override
+    public <T> Publisher<T> save(final T entity, final int depth) {
+        return new IterablePublisher<>(new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<Iterable<T>> open() {
+                return single(operations.save(entity, depth));
+            }
+        });
+    }
+
+    @Override
+    public Publisher<Void> delete(final Object entity) {
+        return new IterablePublisher<>(new IterablePublisher.Source<Void>() {
+            @Override
+            public ListenableFuture<Iterable<Void>> open() {
+                return single(operations.delete(entity));
+            }
+        });
+    }
+
+    /*
+     * Reactive Streams forbids null elements, so a null value completes the publisher without emitting anything.
+     */
+    private static <T> ListenableFuture<Iterable<T>> single(ListenableFuture<T> future) {
+        return new ListenableFutureAdapter<Iterable<T>, T>(future) {
+            @Override
+            protected Iterable<T> adapt(T value) throws ExecutionException {
+                return value == null ? Collections.<T>emptyList() : Collections.singletonList(value);
+            }
+        };
+    }
+}
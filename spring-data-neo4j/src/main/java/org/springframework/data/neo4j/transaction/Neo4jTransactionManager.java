@@ -13,57 +13,330 @@
 
 package org.springframework.data.neo4j.transaction;
 
+import java.util.Date;
+import java.util.List;
+
 import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.transaction.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.neo4j.metrics.Neo4jMetrics;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.InvalidTimeoutException;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSuspensionNotSupportedException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 /**
  * This class is a wrapper around the OGM TransactionManager.
  *
+ * Spring transaction synchronization is initialised for every new transaction and every outermost
+ * non-transactional scope, so that a shared session created by {@link SharedSessionCreator} is scoped to the
+ * transaction rather than to the thread. The read-only flag of the transaction definition is exposed through the
+ * {@link TransactionSynchronizationManager}, which lets a {@link SessionRoutingPolicy} route read-only transactions
+ * to read replicas, and lets the {@link org.springframework.data.neo4j.template.Neo4jTemplate} reject writes and run
+ * its queries read-only.
+ *
+ * REQUIRES_NEW and NOT_SUPPORTED suspend the synchronizations of the current transaction, including its bound
+ * session, and resume them on completion, so with a shared session the new scope runs on a session of its own. A
+ * plain {@link Session} has only one transaction, which cannot be suspended, so both throw a
+ * {@link TransactionSuspensionNotSupportedException} inside an existing transaction unless the session is shared.
+ * OGM has no savepoints, so NESTED begins a new transaction when none exists and throws a
+ * {@link NestedTransactionNotSupportedException} inside an existing one. All other propagation behaviours are
+ * supported.
+ *
+ * A timeout set on the transaction definition, for example with {@code TransactionTemplate.setTimeout}, is checked on
+ * participation and commit: whenever an existing transaction is joined, before each operation of a
+ * {@link org.springframework.data.neo4j.template.Neo4jTemplate} on the same session, and at commit, where a
+ * transaction that has timed out is rolled back instead, ending its server-side transaction. A statement that is
+ * already running isn't interrupted. The transaction is looked up through the
+ * {@link TransactionSynchronizationManager}, bound under the session of this transaction manager.
+ *
+ * When a participating scope rolls back, or is committed after being marked rollback-only, the whole transaction is
+ * marked rollback-only; committing it then rolls it back and throws an {@link UnexpectedRollbackException}. The
+ * synchronizations of a new transaction are given the chance to flush pending changes before it commits.
+ *
+ * The duration and outcome of each transaction it begins can be recorded with {@link #setMetrics(Neo4jMetrics)}.
+ *
  * @author Vince Bickers
  */
 public class Neo4jTransactionManager implements PlatformTransactionManager {
 
     private final Logger logger = LoggerFactory.getLogger(Neo4jTransactionManager.class);
     private final Session session;
+    private volatile Neo4jMetrics metrics;
 
     public Neo4jTransactionManager(Session session) {
         this.session = session;
     }
 
+    /**
+     * @param metrics The recorder of the transactions begun by this transaction manager, or <code>null</code> to
+     *                record nothing (the default)
+     */
+    public void setMetrics(Neo4jMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public Neo4jMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public TransactionStatus getTransaction(TransactionDefinition transactionDefinition) throws TransactionException {
+        TransactionDefinition definition = transactionDefinition != null ? transactionDefinition : new DefaultTransactionDefinition();
+        if (definition.getTimeout() < TransactionDefinition.TIMEOUT_DEFAULT) {
+            throw new InvalidTimeoutException("Invalid transaction timeout", definition.getTimeout());
+        }
         logger.debug("Requesting to create or join a transaction");
-        return new Neo4jTransactionStatus(session, transactionDefinition);
+
+        Transaction existing = currentTransaction();
+        if (existing != null) {
+            return handleExistingTransaction(definition, existing);
+        }
+
+        switch (definition.getPropagationBehavior()) {
+            case TransactionDefinition.PROPAGATION_MANDATORY:
+                throw new IllegalTransactionStateException("No existing transaction found for transaction marked with propagation 'mandatory'");
+            case TransactionDefinition.PROPAGATION_REQUIRED:
+            case TransactionDefinition.PROPAGATION_REQUIRES_NEW:
+            case TransactionDefinition.PROPAGATION_NESTED:
+                logger.debug("Creating new transaction");
+                return beginTransaction(definition, suspend());
+            default:
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    logger.debug("Participating in existing non-transactional scope");
+                    return new Neo4jTransactionStatus(null, false, false, definition.isReadOnly(), null, null);
+                }
+                logger.debug("Creating new non-transactional scope");
+                return beginNonTransactionalScope(definition, null);
+        }
+    }
+
+    private TransactionStatus handleExistingTransaction(TransactionDefinition definition, Transaction existing) {
+        switch (definition.getPropagationBehavior()) {
+            case TransactionDefinition.PROPAGATION_NEVER:
+                throw new IllegalTransactionStateException("Existing transaction found for transaction marked with propagation 'never'");
+            case TransactionDefinition.PROPAGATION_NOT_SUPPORTED:
+                logger.debug("Suspending current transaction");
+                assertSuspendable();
+                return beginNonTransactionalScope(definition, suspend());
+            case TransactionDefinition.PROPAGATION_REQUIRES_NEW:
+                logger.debug("Suspending current transaction, creating new transaction");
+                assertSuspendable();
+                return beginTransaction(definition, suspend());
+            case TransactionDefinition.PROPAGATION_NESTED:
+                throw new NestedTransactionNotSupportedException("Neo4j OGM transactions do not support savepoints, " +
+                        "so transactions cannot be nested in an existing one");
+            default:
+                logger.debug("Joining existing transaction");
+                return new Neo4jTransactionStatus(existing, false, false, definition.isReadOnly(), currentTransactionState(), null);
+        }
+    }
+
+    /*
+     * Only a shared session can hand out a session of its own to the new scope, a plain session stays in the
+     * existing transaction.
+     */
+    private void assertSuspendable() {
+        if (!(session instanceof SessionProxy)) {
+            throw new TransactionSuspensionNotSupportedException("Transactions of a plain Session cannot be suspended, " +
+                    "use a shared session created by SharedSessionCreator");
+        }
+    }
+
+    private TransactionStatus beginTransaction(TransactionDefinition definition, SuspendedResources suspended) {
+        initSynchronization(definition, true);
+        try {
+            Transaction tx = session.beginTransaction();
+            TransactionState transactionState = new TransactionState(tx, definition.getTimeout());
+            TransactionSynchronizationManager.bindResource(session, transactionState);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionStateSynchronization(session, transactionState));
+            return new Neo4jTransactionStatus(tx, true, true, definition.isReadOnly(), transactionState, suspended);
+        } catch (RuntimeException | Error e) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(session);
+            TransactionSynchronizationManager.clear();
+            resume(suspended);
+            throw e;
+        }
+    }
+
+    private TransactionStatus beginNonTransactionalScope(TransactionDefinition definition, SuspendedResources suspended) {
+        initSynchronization(definition, false);
+        return new Neo4jTransactionStatus(null, false, true, definition.isReadOnly(), null, suspended);
     }
 
     @Override
     public void commit(TransactionStatus transactionStatus) throws TransactionException {
-        Transaction tx = ((Neo4jTransactionStatus) transactionStatus).getTransaction();
-        if (transactionStatus.isNewTransaction() && canCommit(tx)) {
-            logger.debug("Commit requested: " + tx + ", status: " + tx.status().toString());
-            tx.commit();
-            tx.close();
+        Neo4jTransactionStatus status = (Neo4jTransactionStatus) transactionStatus;
+        if (status.isLocalRollbackOnly()) {
+            logger.debug("Transactional code has requested rollback");
+            rollback(status);
+            return;
+        }
+        if (status.isNewTransaction() && status.isGlobalRollbackOnly()) {
+            logger.debug("Global transaction is marked as rollback-only but transactional code requested commit");
+            rollback(status);
+            throw new UnexpectedRollbackException("Transaction rolled back because it has been marked as rollback-only");
+        }
+
+        Transaction tx = status.getTransaction();
+        int completionStatus = TransactionSynchronization.STATUS_UNKNOWN;
+        try {
+            if (status.isNewSynchronization() && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationUtils.triggerBeforeCommit(status.isReadOnly());
+                TransactionSynchronizationUtils.triggerBeforeCompletion();
+            }
+            if (status.isNewTransaction() && canCommit(tx)) {
+                if (status.isTimedOut()) {
+                    throw new TransactionTimedOutException("Transaction timed out: deadline was " + new Date(status.getDeadline()));
+                }
+                logger.debug("Commit requested: " + tx + ", status: " + tx.status().toString());
+                tx.commit();
+                tx.close();
+            }
+            completionStatus = TransactionSynchronization.STATUS_COMMITTED;
+            if (status.isNewSynchronization() && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationUtils.triggerAfterCommit();
+            }
+        } catch (RuntimeException | Error e) {
+            if (completionStatus == TransactionSynchronization.STATUS_UNKNOWN && status.isNewTransaction() && canRollback(tx)) {
+                logger.debug("Commit failed, rolling back: " + tx);
+                tx.rollback();
+                tx.close();
+                completionStatus = TransactionSynchronization.STATUS_ROLLED_BACK;
+            }
+            throw e;
+        } finally {
+            complete(status, completionStatus);
+            recordTransaction(status, completionStatus);
         }
     }
 
     @Override
     public void rollback(TransactionStatus transactionStatus) throws TransactionException {
-        Transaction tx = ((Neo4jTransactionStatus) transactionStatus).getTransaction();
-        if (transactionStatus.isNewTransaction() && canRollback(tx)) {
-            logger.debug("Rollback requested: " + tx + ", status: " + tx.status().toString());
-            tx.rollback();
-            tx.close();
+        Neo4jTransactionStatus status = (Neo4jTransactionStatus) transactionStatus;
+        Transaction tx = status.getTransaction();
+        try {
+            if (status.isNewSynchronization() && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationUtils.triggerBeforeCompletion();
+            }
+            if (status.isNewTransaction() && canRollback(tx)) {
+                logger.debug("Rollback requested: " + tx + ", status: " + tx.status().toString());
+                tx.rollback();
+                tx.close();
+            }
+            if (!status.isNewSynchronization() && status.getTransactionState() != null) {
+                logger.debug("Participating transaction failed - marking existing transaction as rollback-only");
+                status.getTransactionState().setRollbackOnly();
+            }
+        } finally {
+            complete(status, TransactionSynchronization.STATUS_ROLLED_BACK);
+            recordTransaction(status, TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private Transaction currentTransaction() {
+        TransactionState transactionState = (TransactionState) TransactionSynchronizationManager.getResource(session);
+        Transaction tx = transactionState != null ? transactionState.getTransaction() : null;
+        if (tx == null
+                || tx.status().equals(Transaction.Status.CLOSED)
+                || tx.status().equals(Transaction.Status.COMMITTED)
+                || tx.status().equals(Transaction.Status.ROLLEDBACK)) {
+            return null;
+        }
+        return tx;
+    }
+
+    private void initSynchronization(TransactionDefinition definition, boolean transactional) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(transactional);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(definition.isReadOnly());
+        TransactionSynchronizationManager.setCurrentTransactionName(definition.getName());
+    }
+
+    private void complete(Neo4jTransactionStatus status, int completionStatus) {
+        status.setCompleted();
+        try {
+            if (status.isNewSynchronization() && TransactionSynchronizationManager.isSynchronizationActive()) {
+                try {
+                    TransactionSynchronizationUtils.invokeAfterCompletion(
+                            TransactionSynchronizationManager.getSynchronizations(), completionStatus);
+                } finally {
+                    TransactionSynchronizationManager.clear();
+                }
+            }
+        } finally {
+            resume((SuspendedResources) status.getSuspendedResources());
         }
     }
 
+    /*
+     * Only outermost transactions are recorded, not the scopes that join them.
+     */
+    private void recordTransaction(Neo4jTransactionStatus status, int completionStatus) {
+        Neo4jMetrics recorder = metrics;
+        if (recorder == null || !status.isNewTransaction() || !status.isNewSynchronization()
+                || status.getTransactionState() == null || completionStatus == TransactionSynchronization.STATUS_UNKNOWN) {
+            return;
+        }
+        recorder.recordTransaction(System.nanoTime() - status.getTransactionState().getStartNanos(),
+                completionStatus == TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private SuspendedResources suspend() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.suspend();
+        }
+        SuspendedResources suspended = new SuspendedResources(synchronizations,
+                TransactionSynchronizationManager.getCurrentTransactionName(),
+                TransactionSynchronizationManager.isCurrentTransactionReadOnly(),
+                TransactionSynchronizationManager.isActualTransactionActive());
+        TransactionSynchronizationManager.clear();
+        return suspended;
+    }
+
+    private void resume(SuspendedResources suspended) {
+        if (suspended == null) {
+            return;
+        }
+        logger.debug("Resuming suspended transaction");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(suspended.actualTransactionActive);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(suspended.readOnly);
+        TransactionSynchronizationManager.setCurrentTransactionName(suspended.name);
+        for (TransactionSynchronization synchronization : suspended.synchronizations) {
+            synchronization.resume();
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        }
+    }
+
+    private TransactionState currentTransactionState() {
+        TransactionState transactionState = (TransactionState) TransactionSynchronizationManager.getResource(session);
+        if (transactionState != null && transactionState.isTimedOut()) {
+            throw new TransactionTimedOutException("Transaction timed out: deadline was " + transactionState.getDeadline());
+        }
+        return transactionState;
+    }
 
     private boolean canCommit(Transaction tx) {
+        if (tx == null) {
+            return false;
+        }
         switch (tx.status()) {
             case COMMIT_PENDING: return true;
             case OPEN: return true;
@@ -72,10 +345,58 @@ public class Neo4jTransactionManager implements PlatformTransactionManager {
     }
 
     private boolean canRollback(Transaction tx) {
+        if (tx == null) {
+            return false;
+        }
         switch (tx.status()) {
             case OPEN: return true;
             case ROLLBACK_PENDING:return true;
             default:return false;
         }
     }
+
+    /**
+     * Unbinds the state of a transaction once it completes, and while it is suspended.
+     */
+    private static class TransactionStateSynchronization extends TransactionSynchronizationAdapter {
+
+        private final Session session;
+        private final TransactionState transactionState;
+
+        TransactionStateSynchronization(Session session, TransactionState transactionState) {
+            this.session = session;
+            this.transactionState = transactionState;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(session);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(session, transactionState);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(session);
+        }
+    }
+
+    private static class SuspendedResources {
+
+        private final List<TransactionSynchronization> synchronizations;
+        private final String name;
+        private final boolean readOnly;
+        private final boolean actualTransactionActive;
+
+        SuspendedResources(List<TransactionSynchronization> synchronizations, String name, boolean readOnly,
+                           boolean actualTransactionActive) {
+            this.synchronizations = synchronizations;
+            this.name = name;
+            this.readOnly = readOnly;
+            this.actualTransactionActive = actualTransactionActive;
+        }
+    }
 }
@@ -20,8 +20,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 /**
+ * The status of a transaction obtained from a {@link Neo4jTransactionManager}. Depending on its propagation, the
+ * status either wraps an OGM {@link Transaction} that was begun or joined, or represents a scope in which no
+ * transaction is active, in which case {@link #getTransaction()} returns <code>null</code>.
+ *
+ * Marking a status that joined an existing transaction as rollback-only marks the whole transaction, which is then
+ * rolled back when its outermost status is committed. {@link #flush()} asks the synchronizations of the transaction,
+ * such as a write-behind {@link org.springframework.data.neo4j.template.Neo4jTemplate}, to push their pending
+ * changes to the database.
+ *
  * @author Vince Bickers
  */
 public class Neo4jTransactionStatus implements TransactionStatus {
@@ -29,34 +40,41 @@ public class Neo4jTransactionStatus implements TransactionStatus {
     private final Logger logger = LoggerFactory.getLogger(Neo4jTransactionStatus.class);
 
     private final Transaction transaction;
-    private boolean newTransaction = false;
-
+    private final boolean newTransaction;
+    private final boolean newSynchronization;
+    private final boolean readOnly;
+    private final TransactionState transactionState;
+    private final Object suspendedResources;
+    private boolean rollbackOnly = false;
+    private boolean completed = false;
+
+    /**
+     * Joins the current transaction of the session for PROPAGATION_REQUIRED, or begins one if none is open. Begins a
+     * transaction for PROPAGATION_REQUIRES_NEW.
+     *
+     * @param session the session to begin or join a transaction of
+     * @param transactionDefinition the definition of the transaction
+     * @deprecated statuses are created by {@link Neo4jTransactionManager}, which supports every propagation
+     * behaviour and transaction synchronization
+     */
+    @Deprecated
     public Neo4jTransactionStatus(Session session, TransactionDefinition transactionDefinition) {
+        this(session, transactionDefinition, joinableTransaction(session, transactionDefinition));
+    }
 
-        Transaction tx;
-        int propagation = transactionDefinition.getPropagationBehavior();
-
-        if (propagation == TransactionDefinition.PROPAGATION_REQUIRES_NEW)  {
-            logger.debug("Creating new transaction or extending existing one");
-            tx = session.beginTransaction();
-            newTransaction = true;
-        } else if (propagation == TransactionDefinition.PROPAGATION_REQUIRED) {
-            tx = session.getTransaction();
-            if (tx == null
-                    || tx.status().equals(Transaction.Status.CLOSED)
-                    || tx.status().equals(Transaction.Status.COMMITTED)
-                    || tx.status().equals(Transaction.Status.ROLLEDBACK)) {
-                tx = session.beginTransaction();
-                newTransaction = true;
-                logger.debug("Creating new transaction");
-            } else {
-                logger.debug("Joining existing transaction");
-            }
-        } else {
-            throw new RuntimeException("Transaction propagation type not supported: " + transactionDefinition.getPropagationBehavior());
-        }
+    private Neo4jTransactionStatus(Session session, TransactionDefinition transactionDefinition, Transaction existing) {
+        this(existing != null ? existing : session.beginTransaction(), existing == null, false,
+                transactionDefinition.isReadOnly(), null, null);
+    }
 
-        this.transaction = tx;
+    Neo4jTransactionStatus(Transaction transaction, boolean newTransaction, boolean newSynchronization,
+                           boolean readOnly, TransactionState transactionState, Object suspendedResources) {
+        this.transaction = transaction;
+        this.newTransaction = newTransaction;
+        this.newSynchronization = newSynchronization;
+        this.readOnly = readOnly;
+        this.transactionState = transactionState;
+        this.suspendedResources = suspendedResources;
     }
 
     @Override
@@ -73,31 +91,35 @@ public class Neo4jTransactionStatus implements TransactionStatus {
 
     @Override
     public void setRollbackOnly() {
-        logger.info("setRollbackOnly - unsupported");
+        logger.debug("setRollbackOnly");
+        this.rollbackOnly = true;
     }
 
     @Override
     public boolean isRollbackOnly() {
-        logger.info("isRollbackOnly? - false");
-        return false;
+        boolean rollbackOnly = isLocalRollbackOnly() || isGlobalRollbackOnly();
+        logger.debug("isRollbackOnly? " + rollbackOnly);
+        return rollbackOnly;
     }
 
     @Override
     public void flush() {
-        logger.info("flush - unsupported");
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            logger.debug("Flushing pending changes");
+            TransactionSynchronizationUtils.triggerFlush();
+        }
     }
 
     @Override
     public boolean isCompleted() {
-        boolean completed = transaction.status().equals(Transaction.Status.ROLLEDBACK) ||
+        boolean completed = this.completed || transaction != null && (
+                transaction.status().equals(Transaction.Status.ROLLEDBACK) ||
                 transaction.status().equals(Transaction.Status.COMMITTED) ||
-                transaction.status().equals(Transaction.Status.CLOSED);
+                transaction.status().equals(Transaction.Status.CLOSED));
 
         logger.debug("isCompleted? " + completed);
 
         return completed;
-
-
     }
 
     @Override
@@ -116,7 +138,90 @@ public class Neo4jTransactionStatus implements TransactionStatus {
         logger.info("releaseSavepoint - unsupported");
     }
 
+    /**
+     * @return the OGM transaction, or <code>null</code> if this status represents a non-transactional scope
+     */
     public Transaction getTransaction() {
         return transaction;
     }
+
+    /**
+     * @return <code>true</code> if an OGM transaction is active in this scope
+     */
+    public boolean hasTransaction() {
+        return transaction != null;
+    }
+
+    /**
+     * @return <code>true</code> if transaction synchronization was initialised for this transaction and must be
+     * cleared again when it completes
+     */
+    public boolean isNewSynchronization() {
+        return newSynchronization;
+    }
+
+    /**
+     * @return <code>true</code> if the transaction was defined as read-only
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return <code>true</code> if a timeout was set on the transaction and its deadline has passed
+     */
+    public boolean isTimedOut() {
+        return transactionState != null && transactionState.isTimedOut();
+    }
+
+    /**
+     * @return the time in milliseconds at which the transaction times out, or -1 if it has no timeout
+     */
+    public long getDeadline() {
+        return transactionState != null && transactionState.hasTimeout() ? transactionState.getDeadline().getTime() : -1;
+    }
+
+    /**
+     * @return <code>true</code> if {@link #setRollbackOnly()} was called on this status
+     */
+    public boolean isLocalRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    /**
+     * @return <code>true</code> if the transaction this status takes part in was marked as rollback-only
+     */
+    public boolean isGlobalRollbackOnly() {
+        return transactionState != null && transactionState.isRollbackOnly();
+    }
+
+    private static Transaction joinableTransaction(Session session, TransactionDefinition transactionDefinition) {
+        switch (transactionDefinition.getPropagationBehavior()) {
+            case TransactionDefinition.PROPAGATION_REQUIRES_NEW:
+                return null;
+            case TransactionDefinition.PROPAGATION_REQUIRED:
+                Transaction tx = session.getTransaction();
+                if (tx == null
+                        || tx.status().equals(Transaction.Status.CLOSED)
+                        || tx.status().equals(Transaction.Status.COMMITTED)
+                        || tx.status().equals(Transaction.Status.ROLLEDBACK)) {
+                    return null;
+                }
+                return tx;
+            default:
+                throw new RuntimeException("Transaction propagation type not supported: " + transactionDefinition.getPropagationBehavior());
+        }
+    }
+
+    TransactionState getTransactionState() {
+        return transactionState;
+    }
+
+    Object getSuspendedResources() {
+        return suspendedResources;
+    }
+
+    void setCompleted() {
+        this.completed = true;
+    }
 }
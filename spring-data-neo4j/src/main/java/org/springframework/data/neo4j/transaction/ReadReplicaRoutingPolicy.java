@@ -0,0 +1,46 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.ogm.session.SessionFactory;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link SessionRoutingPolicy} that spreads read-only transactions over a list of read replicas in round-robin
+ * order, and routes every other transaction to the default {@link SessionFactory}.
+ *
+ * @author Tobias Hartmann
+ */
+public class ReadReplicaRoutingPolicy implements SessionRoutingPolicy {
+
+    private final List<SessionFactory> readReplicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadReplicaRoutingPolicy(List<SessionFactory> readReplicas) {
+        Assert.notEmpty(readReplicas, "At least one read replica SessionFactory is required");
+        this.readReplicas = new ArrayList<>(readReplicas);
+    }
+
+    @Override
+    public SessionFactory route(SessionFactory defaultSessionFactory, boolean readOnly) {
+        if (!readOnly) {
+            return defaultSessionFactory;
+        }
+        int index = (next.getAndIncrement() & Integer.MAX_VALUE) % readReplicas.size();
+        return readReplicas.get(index);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import org.neo4j.ogm.session.Session;
+
+/**
+ * Implemented by the shared session proxies created by {@link SharedSessionCreator}, giving access to the session
+ * that calls are currently routed to.
+ *
+ * @author Tobias Hartmann
+ */
+public interface SessionProxy extends Session {
+
+    /**
+     * @return the session bound to the current transaction or thread, opening one if necessary
+     */
+    Session getTargetSession();
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import org.neo4j.ogm.session.SessionFactory;
+
+/**
+ * Strategy selecting the {@link SessionFactory} that opens the session of a transaction, so that read-only
+ * transactions can be routed to read replicas.
+ *
+ * @author Tobias Hartmann
+ * @see SharedSessionCreator
+ */
+public interface SessionRoutingPolicy {
+
+    /**
+     * @param defaultSessionFactory the factory sessions are opened from unless routed elsewhere
+     * @param readOnly whether the session is opened for a read-only transaction
+     * @return the factory to open the session from, or <code>null</code> to use the default one
+     */
+    SessionFactory route(SessionFactory defaultSessionFactory, boolean readOnly);
+}
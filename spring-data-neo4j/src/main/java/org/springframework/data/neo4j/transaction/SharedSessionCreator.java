@@ -0,0 +1,233 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transaction;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.transaction.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Creates a shared, thread-safe {@link Session} that can be injected as a singleton into templates, repositories
+ * and the {@link Neo4jTransactionManager}.
+ *
+ * Every call on the shared session is routed to a session scoped to the current Spring transaction, bound through
+ * {@link TransactionSynchronizationManager} for as long as transaction synchronization is active and unbound when the
+ * transaction completes. Outside a transaction, calls are routed to a long-lived session of the current thread, so
+ * that its mapping context is kept across calls as with a plain session. A transaction takes over the session of its
+ * thread unless that session is in a transaction of its own, or the transaction is read-only and may be routed
+ * elsewhere; a transaction that rolls back clears it. Sessions are opened from the {@link SessionFactory} selected by
+ * the {@link SessionRoutingPolicy}, if any, so that read-only transactions can be served by a different database than
+ * the others.
+ *
+ * The session of a thread lives as long as the thread, and so does everything in its mapping context. Threads taken
+ * from a pool should call {@link #releaseThreadSession(SessionFactory)} once done with it.
+ *
+ * @author Tobias Hartmann
+ */
+public abstract class SharedSessionCreator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedSessionCreator.class);
+
+    private static final ThreadLocal<Map<SessionFactory, Session>> threadSessions =
+            new NamedThreadLocal<Map<SessionFactory, Session>>("Neo4j OGM thread sessions") {
+                @Override
+                protected Map<SessionFactory, Session> initialValue() {
+                    return new HashMap<>();
+                }
+            };
+
+    /**
+     * Creates a session proxy that delegates to the session bound to the current transaction. The returned session
+     * also implements {@link SessionProxy}.
+     *
+     * @param sessionFactory the factory used to open new sessions
+     * @return the shared session proxy
+     */
+    public static Session createSharedSession(SessionFactory sessionFactory) {
+        return createSharedSession(sessionFactory, null);
+    }
+
+    /**
+     * Creates a session proxy that delegates to the session bound to the current transaction, opening new sessions from
+     * the factory chosen by the given routing policy. The returned session also implements {@link SessionProxy}.
+     *
+     * @param sessionFactory the factory used to open new sessions, and the key sessions are bound under
+     * @param routingPolicy the policy selecting the factory for each new session, may be <code>null</code>
+     * @return the shared session proxy
+     */
+    public static Session createSharedSession(SessionFactory sessionFactory, SessionRoutingPolicy routingPolicy) {
+        Assert.notNull(sessionFactory, "SessionFactory must not be null");
+        return (Session) Proxy.newProxyInstance(SharedSessionCreator.class.getClassLoader(),
+                new Class<?>[] { SessionProxy.class }, new SharedSessionInvocationHandler(sessionFactory, routingPolicy));
+    }
+
+    /**
+     * Returns the session for the given factory bound to the current transaction, binding one if necessary. Outside a
+     * transaction, the session of the current thread is returned.
+     *
+     * @param sessionFactory the factory used to open a new session
+     * @return the current session, never <code>null</code>
+     */
+    public static Session getCurrentSession(SessionFactory sessionFactory) {
+        return getCurrentSession(sessionFactory, null);
+    }
+
+    /**
+     * Returns the session for the given factory bound to the current transaction, binding one if necessary. Outside a
+     * transaction, the session of the current thread is returned. New sessions are opened from the factory chosen by
+     * the routing policy.
+     *
+     * @param sessionFactory the key the session is bound under, and the default factory used to open it
+     * @param routingPolicy the policy selecting the factory that opens a new session, may be <code>null</code>
+     * @return the current session, never <code>null</code>
+     */
+    public static Session getCurrentSession(SessionFactory sessionFactory, SessionRoutingPolicy routingPolicy) {
+        Session session = (Session) TransactionSynchronizationManager.getResource(sessionFactory);
+        if (session != null) {
+            return session;
+        }
+        Map<SessionFactory, Session> sessions = threadSessions.get();
+        Session threadSession = sessions.get(sessionFactory);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            if (threadSession != null && !hasOpenTransaction(threadSession) && !(readOnly && routingPolicy != null)) {
+                logger.debug("Binding session of the current thread to transaction");
+                session = threadSession;
+            } else {
+                logger.debug("Opening new {}session for transaction", readOnly ? "read-only " : "");
+                session = openSession(sessionFactory, routingPolicy, readOnly);
+            }
+            TransactionSynchronizationManager.bindResource(sessionFactory, session);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new SessionSynchronization(sessionFactory, session, session == threadSession));
+            return session;
+        }
+        if (threadSession == null) {
+            logger.debug("Opening new session for thread");
+            threadSession = openSession(sessionFactory, routingPolicy, false);
+            sessions.put(sessionFactory, threadSession);
+        }
+        return threadSession;
+    }
+
+    /**
+     * Forgets the session of the current thread for the given factory, if any, so that the next call made outside a
+     * transaction opens a new one. Meant for pooled threads, which would otherwise keep their session, and every
+     * entity in it, for as long as they live.
+     *
+     * @param sessionFactory the factory the session was opened for
+     */
+    public static void releaseThreadSession(SessionFactory sessionFactory) {
+        Map<SessionFactory, Session> sessions = threadSessions.get();
+        sessions.remove(sessionFactory);
+        if (sessions.isEmpty()) {
+            threadSessions.remove();
+        }
+    }
+
+    private static boolean hasOpenTransaction(Session session) {
+        Transaction tx = session.getTransaction();
+        return tx != null
+                && !tx.status().equals(Transaction.Status.CLOSED)
+                && !tx.status().equals(Transaction.Status.COMMITTED)
+                && !tx.status().equals(Transaction.Status.ROLLEDBACK);
+    }
+
+    private static Session openSession(SessionFactory sessionFactory, SessionRoutingPolicy routingPolicy, boolean readOnly) {
+        SessionFactory target = routingPolicy != null ? routingPolicy.route(sessionFactory, readOnly) : null;
+        return (target != null ? target : sessionFactory).openSession();
+    }
+
+    private static class SharedSessionInvocationHandler implements InvocationHandler {
+
+        private final SessionFactory sessionFactory;
+        private final SessionRoutingPolicy routingPolicy;
+
+        SharedSessionInvocationHandler(SessionFactory sessionFactory, SessionRoutingPolicy routingPolicy) {
+            this.sessionFactory = sessionFactory;
+            this.routingPolicy = routingPolicy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Shared Session proxy for " + sessionFactory;
+                case "getTargetSession":
+                    return getCurrentSession(sessionFactory, routingPolicy);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(getCurrentSession(sessionFactory, routingPolicy), args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    /**
+     * Unbinds a transaction-scoped session once the transaction completes, and while it is suspended. The session of
+     * a thread is cleared when a transaction using it doesn't commit, so that it doesn't hold on to changes that were
+     * never made.
+     */
+    private static class SessionSynchronization extends TransactionSynchronizationAdapter {
+
+        private final SessionFactory sessionFactory;
+        private final Session session;
+        private final boolean threadSession;
+
+        SessionSynchronization(SessionFactory sessionFactory, Session session, boolean threadSession) {
+            this.sessionFactory = sessionFactory;
+            this.session = session;
+            this.threadSession = threadSession;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(sessionFactory);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(sessionFactory, session);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(sessionFactory);
+            if (threadSession && status != TransactionSynchronization.STATUS_COMMITTED) {
+                session.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+package org.springframework.data.neo4j.transaction;
+
+import org.neo4j.ogm.transaction.Transaction;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.ResourceHolderSupport;
+
+/**
+ * State shared by all statuses taking part in one transaction begun by a {@link Neo4jTransactionManager}. It is bound
+ * to the thread through {@link org.springframework.transaction.support.TransactionSynchronizationManager} under the
+ * session of the transaction manager, and unbound while the transaction is suspended, so that the transaction can be
+ * looked up by anyone using the same session. Its deadline is checked through
+ * {@link #getTimeToLiveInMillis()}.
+ *
+ * @author Tobias Hartmann
+ */
+class TransactionState extends ResourceHolderSupport {
+
+    private final Transaction transaction;
+    private final long startNanos = System.nanoTime();
+
+    TransactionState(Transaction transaction, int timeout) {
+        this.transaction = transaction;
+        if (timeout != TransactionDefinition.TIMEOUT_DEFAULT) {
+            setTimeoutInSeconds(timeout);
+        }
+    }
+
+    Transaction getTransaction() {
+        return transaction;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    boolean isTimedOut() {
+        return hasTimeout() && getDeadline().getTime() < System.currentTimeMillis();
+    }
+}
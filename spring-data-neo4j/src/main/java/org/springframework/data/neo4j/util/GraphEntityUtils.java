@@ -0,0 +1,108 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.util;
+
+import java.lang.reflect.Field;
+
+import org.neo4j.ogm.annotation.NodeEntity;
+import org.neo4j.ogm.annotation.Property;
+import org.neo4j.ogm.annotation.RelationshipEntity;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Utility methods for working out how an entity class is represented in the graph, used when building Cypher
+ * statements that bypass the OGM's mapping.
+ *
+ * @author Tobias Hartmann
+ */
+public final class GraphEntityUtils {
+
+    /**
+     * Check whether a class is mapped to a relationship rather than a node.
+     *
+     * @param type entity class.
+     * @return true iff the class or one of its super classes is annotated with {@link RelationshipEntity}.
+     */
+    public static boolean isRelationshipEntity(Class<?> type) {
+        return AnnotationUtils.findAnnotation(type, RelationshipEntity.class) != null;
+    }
+
+    /**
+     * Get the label that every node of a node entity class carries.
+     *
+     * @param type node entity class.
+     * @return the label declared by {@link NodeEntity} on the class itself, or the simple class name otherwise.
+     */
+    public static String label(Class<?> type) {
+        if (AnnotationUtils.isAnnotationDeclaredLocally(NodeEntity.class, type)) {
+            String label = type.getAnnotation(NodeEntity.class).label();
+            if (label != null && !label.isEmpty()) {
+                return label;
+            }
+        }
+        return type.getSimpleName();
+    }
+
+    /**
+     * Get the type of the relationships a relationship entity class is mapped to.
+     *
+     * @param type relationship entity class.
+     * @return the type declared by {@link RelationshipEntity}, or the upper-cased simple class name otherwise.
+     */
+    public static String relationshipType(Class<?> type) {
+        RelationshipEntity annotation = AnnotationUtils.findAnnotation(type, RelationshipEntity.class);
+        if (annotation != null && annotation.type() != null && !annotation.type().isEmpty()) {
+            return annotation.type();
+        }
+        return type.getSimpleName().toUpperCase();
+    }
+
+    /**
+     * Build a Cypher pattern element matching the entities of a class, e.g. <code>(n:`Person`)</code> or
+     * <code>()-[n:`ACTS_IN`]-&gt;()</code>.
+     *
+     * @param type     entity class.
+     * @param variable the identifier to bind the node or relationship to.
+     * @return the pattern.
+     */
+    public static String pattern(Class<?> type, String variable) {
+        if (isRelationshipEntity(type)) {
+            return "()-[" + variable + ":`" + relationshipType(type) + "`]->()";
+        }
+        return "(" + variable + ":`" + label(type) + "`)";
+    }
+
+    /**
+     * Get the name of the graph property a field of an entity class is mapped to.
+     *
+     * @param type      entity class.
+     * @param fieldName the name of the field, as used in derived finders.
+     * @return the name declared by {@link Property} on the field, or the field name otherwise.
+     */
+    public static String propertyName(Class<?> type, String fieldName) {
+        Field field = ReflectionUtils.findField(type, fieldName);
+        Property property = field != null ? field.getAnnotation(Property.class) : null;
+        if (property != null && property.name() != null && !property.name().isEmpty()) {
+            return property.name();
+        }
+        return fieldName;
+    }
+
+    /**
+     * private constructor to prevent instantiation.
+     */
+    private GraphEntityUtils() {
+    }
+}
@@ -89,6 +89,37 @@ public final class IterableUtils {
         return list;
     }
 
+    /**
+     * Split an iterable into consecutive lists of at most the given size.
+     *
+     * @param iterable to split.
+     * @param size     maximum number of items in each list, must be positive.
+     * @param <T>      type of the items held.
+     * @return the lists, in iteration order. Empty if the iterable has no items.
+     */
+    public static <T> List<List<T>> partition(Iterable<T> iterable, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Partition size must be positive, was " + size);
+        }
+
+        List<List<T>> partitions = new ArrayList<>();
+        List<T> current = new ArrayList<>(size);
+
+        for (T next : iterable) {
+            current.add(next);
+            if (current.size() == size) {
+                partitions.add(current);
+                current = new ArrayList<>(size);
+            }
+        }
+
+        if (!current.isEmpty()) {
+            partitions.add(current);
+        }
+
+        return partitions;
+    }
+
     /**
      * Get a single element from iterator.
      *
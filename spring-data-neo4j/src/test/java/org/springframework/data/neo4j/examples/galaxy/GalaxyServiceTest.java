@@ -19,6 +19,7 @@ import org.junit.runner.RunWith;
 import org.neo4j.ogm.cypher.query.Pagination;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -246,6 +247,43 @@ public class GalaxyServiceTest extends MultiDriverTestClass {
         assertEquals(0, sum);
     }
 
+    @Test
+    public void shouldCountTotalOfPagedQueryWithCountQuery() {
+
+        int count = galaxyService.makeAllWorldsAtOnce().size();
+
+        Page<World> worlds = galaxyService.findAllWorldsSortedByName(new PageRequest(1, 3));
+
+        assertEquals(3, worlds.getNumberOfElements());
+        assertEquals(count, worlds.getTotalElements());
+        assertEquals(5, worlds.getTotalPages());
+    }
+
+    @Test
+    public void shouldSortPagedQueryBySortOfPageable() {
+
+        List<World> worlds = (List<World>) galaxyService.makeAllWorldsAtOnce();
+        String[] sortedNames = getNamesSorted(worlds);
+
+        Page<World> page = galaxyService.findAllWorldsByQuery(new PageRequest(1, 3, Sort.Direction.DESC, "n.name"));
+
+        assertEquals(3, page.getNumberOfElements());
+        assertEquals(worlds.size(), page.getTotalElements());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(sortedNames[sortedNames.length - 4 - i], page.getContent().get(i).getName());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSortOfPagedQueryThatIsNotAnExpressionOfTheQuery() {
+        galaxyService.findAllWorldsByQuery(new PageRequest(0, 3, Sort.Direction.ASC, "n.name; MATCH (m) DETACH DELETE m"));
+    }
+
+    @Test(expected = InvalidDataAccessApiUsageException.class)
+    public void shouldRejectSortOfPagedQueryEndingWithOrderBy() {
+        galaxyService.findAllWorldsSortedByName(new PageRequest(0, 3, Sort.Direction.DESC, "n.name"));
+    }
+
     @Test
     public void shouldPageAllWorldsSorted() {
 
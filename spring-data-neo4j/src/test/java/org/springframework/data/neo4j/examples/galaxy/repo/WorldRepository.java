@@ -14,6 +14,8 @@
 package org.springframework.data.neo4j.examples.galaxy.repo;
 
 import org.neo4j.ogm.model.Result;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.neo4j.annotation.Query;
 import org.springframework.data.neo4j.examples.galaxy.domain.World;
 import org.springframework.data.neo4j.repository.GraphRepository;
@@ -34,4 +36,10 @@ public interface WorldRepository extends GraphRepository<World> {
 
     World findByName(String name);
 
+    @Query(value = "MATCH (n:World) RETURN n ORDER BY n.name", countQuery = "MATCH (n:World) RETURN count(n)")
+    Page<World> findAllWorldsSortedByName(Pageable pageable);
+
+    @Query(value = "MATCH (n:World) RETURN n", countQuery = "MATCH (n:World) RETURN count(n)")
+    Page<World> findAllWorldsByQuery(Pageable pageable);
+
 }
@@ -178,6 +178,14 @@ public class GalaxyService {
         return worldRepository.findAll(pageable, 0);
     }
 
+    public Page<World> findAllWorldsSortedByName(Pageable pageable) {
+        return worldRepository.findAllWorldsSortedByName(pageable);
+    }
+
+    public Page<World> findAllWorldsByQuery(Pageable pageable) {
+        return worldRepository.findAllWorldsByQuery(pageable);
+    }
+
     public Iterable<World> findAllWorlds(Sort sort, int depth) {
         return worldRepository.findAll(sort, depth);
     }
@@ -20,6 +20,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.neo4j.config.Neo4jConfiguration;
 import org.springframework.data.neo4j.repository.config.EnableNeo4jRepositories;
+import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
@@ -29,6 +30,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @ComponentScan({"org.springframework.data.neo4j.examples.movies"})
 @EnableNeo4jRepositories("org.springframework.data.neo4j.examples.movies.repo")
 @EnableTransactionManagement
+@EnableAsync
 public class MoviesContext extends Neo4jConfiguration {
 
     @Override
@@ -42,4 +44,9 @@ public class MoviesContext extends Neo4jConfiguration {
     public Session getSession() throws Exception {
         return super.getSession();
     }
+
+    @Bean
+    public ThreadRecordingTaskExecutor taskExecutor() {
+        return new ThreadRecordingTaskExecutor();
+    }
 }
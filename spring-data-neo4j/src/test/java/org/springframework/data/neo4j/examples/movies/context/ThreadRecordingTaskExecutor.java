@@ -0,0 +1,44 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.examples.movies.context;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Runs each task on a new thread, and records the threads it ran tasks on.
+ *
+ * @author Tobias Hartmann
+ */
+public class ThreadRecordingTaskExecutor extends SimpleAsyncTaskExecutor {
+
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void doExecute(final Runnable task) {
+        super.doExecute(new Runnable() {
+            @Override
+            public void run() {
+                threads.add(Thread.currentThread());
+                task.run();
+            }
+        });
+    }
+
+    public List<Thread> getThreads() {
+        return threads;
+    }
+}
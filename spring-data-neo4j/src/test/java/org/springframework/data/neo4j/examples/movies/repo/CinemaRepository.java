@@ -16,6 +16,8 @@ package org.springframework.data.neo4j.examples.movies.repo;
 import org.springframework.data.neo4j.annotation.Depth;
 import org.springframework.data.neo4j.examples.movies.domain.Cinema;
 import org.springframework.data.neo4j.repository.GraphRepository;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -34,6 +36,8 @@ public interface CinemaRepository extends GraphRepository<Cinema> {
 
 	List<Cinema> findByLocationLike(String location);
 
+	KeysetSlice<Cinema> findByNameLike(String name, KeysetRequest request);
+
 	List<Cinema> findByNameAndLocation(String name, String location);
 
 	List<Cinema> findByNameOrLocation(String name, String location);
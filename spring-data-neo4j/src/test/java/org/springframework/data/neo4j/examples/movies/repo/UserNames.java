@@ -0,0 +1,28 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.examples.movies.repo;
+
+/**
+ * A closed projection of {@link org.springframework.data.neo4j.examples.movies.domain.User}.
+ *
+ * @author Tobias Hartmann
+ */
+public interface UserNames {
+
+    Long getId();
+
+    String getName();
+
+    String getSurname();
+}
@@ -18,11 +18,14 @@ import org.springframework.data.neo4j.annotation.Query;
 import org.springframework.data.neo4j.examples.movies.domain.User;
 import org.springframework.data.neo4j.examples.movies.domain.queryresult.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.concurrent.ListenableFuture;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * @author Michal Bachman
@@ -33,6 +36,10 @@ public interface UserRepository extends PersonRepository<User> {
 
     Collection<User> findByMiddleName(String middleName);
 
+    List<UserNames> findAllBySurname(String surname);
+
+    UserNames findFirstBySurnameAndName(String surname, String name);
+
     List<User> findByRatingsStars(int stars);
 
     List<User> findByRatingsStarsAndInterestedName(int stars, String name);
@@ -49,6 +56,10 @@ public interface UserRepository extends PersonRepository<User> {
     @Query("MATCH (user:User) RETURN user")
     Collection<User> getAllUsers();
 
+    @Async
+    @Query("MATCH (user:User) RETURN user")
+    ListenableFuture<Collection<User>> getAllUsersAsync();
+
     @Query("MATCH (m:Movie)<-[:ACTED_IN]-(a:User) RETURN m.name as movie, collect(a.name) as cast")
     List<Map<String, Object>> getGraph();
 
@@ -61,6 +72,9 @@ public interface UserRepository extends PersonRepository<User> {
     @Query("MATCH (user:User) RETURN id(user) AS userId, id(user) as id, user.name AS userName, user.age ORDER BY user.age")
     Iterable<UserQueryResult> retrieveAllUsersAndTheirAges();
 
+    @Query("MATCH (user:User) RETURN id(user) AS userId, id(user) as id, user.name AS userName, user.age ORDER BY user.age")
+    Stream<UserQueryResult> streamAllUsersAndTheirAges();
+
     @Query("MATCH (user:User{name:{0}}) RETURN user.name AS name")
     UnmanagedUserPojo findIndividualUserAsDifferentObject(String name);
 
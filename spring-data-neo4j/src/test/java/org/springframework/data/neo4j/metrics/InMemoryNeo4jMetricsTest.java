@@ -0,0 +1,102 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@code InMemoryNeo4jMetrics}.
+ *
+ * @author Tobias Hartmann
+ */
+public class InMemoryNeo4jMetricsTest {
+
+    @Test
+    public void shouldRecordOperationsPerMethodAndDepth() {
+        InMemoryNeo4jMetrics metrics = new InMemoryNeo4jMetrics();
+        metrics.recordOperation("UserRepository", "findByName", 1, 1000, 3, 3);
+        metrics.recordOperation("UserRepository", "findByName", 1, 3000, 1, 1);
+        metrics.recordOperation("UserRepository", "findByName", 2, 5000, 1, 4);
+        metrics.recordOperation("UserRepository", "findBySurname", 1, 5000, Neo4jMetrics.UNKNOWN, Neo4jMetrics.UNKNOWN);
+
+        List<OperationStatistics> statistics = metrics.getOperationStatistics("UserRepository", "findByName");
+        assertEquals(2, statistics.size());
+        OperationStatistics depthOne = statistics.get(0).getDepth() == 1 ? statistics.get(0) : statistics.get(1);
+        assertEquals(2, depthOne.getCount());
+        assertEquals(4, depthOne.getRows());
+        assertEquals(4, depthOne.getEntityResults());
+        assertEquals(4000, depthOne.getTotalTime(TimeUnit.NANOSECONDS));
+        assertEquals(3000, depthOne.getMaxTime(TimeUnit.NANOSECONDS));
+
+        OperationStatistics unknown = metrics.getOperationStatistics("UserRepository", "findBySurname").get(0);
+        assertEquals(0, unknown.getRows());
+        assertEquals(3, metrics.getOperationStatistics().size());
+    }
+
+    @Test
+    public void shouldRecordFailuresApartFromCompletedOperations() {
+        InMemoryNeo4jMetrics metrics = new InMemoryNeo4jMetrics();
+        metrics.recordOperation("UserRepository", "findByName", 1, 1000, 1, 1);
+        metrics.recordFailure("UserRepository", "findByName", 1, 30000, new IllegalStateException("Timed out"));
+        metrics.recordFailure("UserRepository", "findByName", 1, 2000, new IllegalArgumentException());
+        metrics.recordFailure("UserRepository", "findByName", 1, 4000, new IllegalStateException("Timed out"));
+
+        OperationStatistics statistics = metrics.getOperationStatistics("UserRepository", "findByName").get(0);
+        assertEquals(1, statistics.getCount());
+        assertEquals(1000, statistics.getMaxTime(TimeUnit.NANOSECONDS));
+        assertEquals(3, statistics.getFailureCount());
+        assertEquals(30000, statistics.getMaxFailureTime(TimeUnit.NANOSECONDS));
+        assertEquals(Long.valueOf(2), statistics.getFailures().get(IllegalStateException.class.getName()));
+        assertEquals(Long.valueOf(1), statistics.getFailures().get(IllegalArgumentException.class.getName()));
+    }
+
+    @Test
+    public void shouldEstimatePercentilesWithinAFactorOfTwo() {
+        InMemoryNeo4jMetrics metrics = new InMemoryNeo4jMetrics();
+        for (int i = 0; i < 99; i++) {
+            metrics.recordOperation("Neo4jTemplate", "load", 1, TimeUnit.MICROSECONDS.toNanos(100), 1, 1);
+        }
+        metrics.recordOperation("Neo4jTemplate", "load", 1, TimeUnit.MILLISECONDS.toNanos(50), 1, 1);
+
+        OperationStatistics statistics = metrics.getOperationStatistics("Neo4jTemplate", "load").get(0);
+        long p50 = statistics.getP50Time(TimeUnit.MICROSECONDS);
+        assertTrue(p50 >= 100 && p50 <= 200);
+        long p99 = statistics.getP99Time(TimeUnit.MICROSECONDS);
+        assertTrue(p99 >= 100 && p99 <= 200);
+        assertEquals(50, statistics.getMaxTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void shouldCountCommitsAndRollbacks() {
+        InMemoryNeo4jMetrics metrics = new InMemoryNeo4jMetrics();
+        metrics.recordTransaction(1000, true);
+        metrics.recordTransaction(2000, true);
+        metrics.recordTransaction(3000, false);
+
+        TransactionStatistics statistics = metrics.getTransactionStatistics();
+        assertEquals(2, statistics.getCommitCount());
+        assertEquals(1, statistics.getRollbackCount());
+        assertEquals(6000, statistics.getTotalTime(TimeUnit.NANOSECONDS));
+
+        metrics.reset();
+        assertEquals(0, metrics.getTransactionStatistics().getCommitCount());
+        assertTrue(metrics.getOperationStatistics().isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@code SlowQueryLog}.
+ *
+ * @author Tobias Hartmann
+ */
+public class SlowQueryLogTest {
+
+    @Test
+    public void shouldOnlyKeepQueriesSlowerThanTheThreshold() {
+        SlowQueryLog log = new SlowQueryLog(10);
+        log.record("Neo4jTemplate.query", "MATCH (n) RETURN n", null, TimeUnit.MILLISECONDS.toNanos(9), 1);
+        log.record("Neo4jTemplate.query", "MATCH (n) RETURN n", null, TimeUnit.MILLISECONDS.toNanos(10), 2);
+
+        List<SlowQueryLog.SlowQuery> slowQueries = log.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals(2, slowQueries.get(0).getRows());
+        assertEquals(10, slowQueries.get(0).getElapsedTime(TimeUnit.MILLISECONDS));
+        assertNull(slowQueries.get(0).getPlan());
+    }
+
+    @Test
+    public void shouldDiscardTheOldestQueriesWhenFull() {
+        SlowQueryLog log = new SlowQueryLog(0, 2);
+        log.record("a", "RETURN 1", null, 1, 1);
+        log.record("b", "RETURN 2", null, 1, 1);
+        log.record("c", "RETURN 3", null, 1, 1);
+
+        List<SlowQueryLog.SlowQuery> slowQueries = log.getSlowQueries();
+        assertEquals(2, slowQueries.size());
+        assertEquals("b", slowQueries.get(0).getSource());
+        assertEquals("c", slowQueries.get(1).getSource());
+    }
+
+    @Test
+    public void shouldNotKeepParameterValues() {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", "secret");
+        parameters.put("ids", Arrays.asList(1L, 2L, 3L));
+        parameters.put("missing", null);
+
+        Map<String, String> redacted = SlowQueryLog.redact(parameters);
+        assertEquals("String", redacted.get("name"));
+        assertTrue(redacted.get("ids").endsWith("[3]"));
+        assertEquals("null", redacted.get("missing"));
+        assertTrue(SlowQueryLog.redact(null).isEmpty());
+    }
+
+    @Test
+    public void shouldOnlyCapturePlansOfReadingCypherStatements() {
+        final SlowQueryLog log = new SlowQueryLog(0);
+        log.setPlanCapture(new SlowQueryLog.PlanCapture() {
+            @Override
+            public String capture(String cypher, Map<String, ?> parameters) {
+                // queries run while capturing are not logged themselves
+                log.record("capture", "PROFILE " + cypher, parameters, 1, 1);
+                return "plan of " + cypher;
+            }
+        });
+
+        log.record("read", "MATCH (n) RETURN n", Collections.singletonMap("x", 1), 1, 1);
+        log.record("write", "MATCH (n) SET n.x = 1", null, 1, 0);
+        log.record("derived", "Derived finder on User where name EQUALS", null, 1, 1, false);
+
+        List<SlowQueryLog.SlowQuery> slowQueries = log.getSlowQueries();
+        assertEquals(3, slowQueries.size());
+        assertEquals("plan of MATCH (n) RETURN n", slowQueries.get(0).getPlan());
+        assertNull(slowQueries.get(1).getPlan());
+        assertNull(slowQueries.get(2).getPlan());
+    }
+}
@@ -22,6 +22,7 @@ import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.neo4j.examples.movies.context.MoviesContext;
 import org.springframework.data.neo4j.examples.movies.domain.Cinema;
 import org.springframework.data.neo4j.examples.movies.domain.Director;
@@ -30,10 +31,19 @@ import org.springframework.data.neo4j.examples.movies.domain.queryresult.EntityW
 import org.springframework.data.neo4j.examples.movies.repo.CinemaRepository;
 import org.springframework.data.neo4j.examples.movies.repo.DirectorRepository;
 import org.springframework.data.neo4j.examples.movies.repo.RatingRepository;
+import org.springframework.data.neo4j.examples.movies.repo.UserNames;
 import org.springframework.data.neo4j.examples.movies.repo.UserRepository;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
+import org.springframework.data.neo4j.template.Neo4jOperations;
+import org.springframework.data.neo4j.template.Neo4jTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.Collection;
@@ -66,6 +76,12 @@ public class DerivedQueryTest extends MultiDriverTestClass {
 	@Autowired
 	private DirectorRepository directorRepository;
 
+	@Autowired
+	private Neo4jOperations neo4jOperations;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
 	@Before
 	public void init() throws IOException {
 		graphDatabaseService.execute("MATCH (n) OPTIONAL MATCH (n)-[r]-() DELETE r, n");
@@ -111,6 +127,24 @@ public class DerivedQueryTest extends MultiDriverTestClass {
 		assertFalse(iterator.hasNext());
 	}
 
+	@Test
+	public void shouldFindClosedProjectionsWithoutLoadingEntities() {
+		executeUpdate("CREATE (m:User {name:'Michal', surname:'Bachman'})<-[:FRIEND_OF]-(a:User {name:'Adam', surname:'George'})"
+				+ " CREATE (v:User {name:'Vince', surname:'Bachman'})");
+
+		List<UserNames> names = userRepository.findAllBySurname("Bachman");
+		assertEquals(2, names.size());
+		for (UserNames userNames : names) {
+			assertNotNull(userNames.getId());
+			assertEquals("Bachman", userNames.getSurname());
+			assertTrue(userNames.getName().equals("Michal") || userNames.getName().equals("Vince"));
+		}
+
+		UserNames adam = userRepository.findFirstBySurnameAndName("George", "Adam");
+		assertEquals("Adam", adam.getName());
+		assertNull(userRepository.findFirstBySurnameAndName("George", "Michal"));
+	}
+
 	/**
 	/* * @see DATAGRAPH-628
 	 */
@@ -522,4 +556,42 @@ public class DerivedQueryTest extends MultiDriverTestClass {
 			assertEquals(2, row.getLiteralMap().size());
 		}
 	}
+
+	@Test
+	public void shouldPageByKeysetSortedOnPropertyWithCustomName() {
+		executeUpdate("CREATE (:Theatre {name:'Picturehouse', city:'Cambridge'}) CREATE (:Theatre {name:'Picturedrome', city:'Bristol'})" +
+				" CREATE (:Theatre {name:'Picturesque', city:'Aberdeen'}) CREATE (:Theatre {name:'Regal', city:'Abingdon'})");
+
+		KeysetSlice<Cinema> first = cinemaRepository.findByNameLike("Picture*", new KeysetRequest(2, new Sort("location")));
+		assertEquals(2, first.getContent().size());
+		assertEquals("Aberdeen", first.getContent().get(0).getLocation());
+		assertEquals("Bristol", first.getContent().get(1).getLocation());
+		assertTrue(first.hasNext());
+
+		KeysetSlice<Cinema> second = cinemaRepository.findByNameLike("Picture*", first.nextRequest());
+		assertEquals(1, second.getContent().size());
+		assertEquals("Cambridge", second.getContent().get(0).getLocation());
+		assertFalse(second.hasNext());
+	}
+
+	@Test
+	public void shouldFindEntitiesSavedInWriteBehindModeInTheSameTransaction() {
+		final Neo4jTemplate template = (Neo4jTemplate) neo4jOperations;
+		template.setWriteBehind(true);
+		try {
+			new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+				@Override
+				protected void doInTransactionWithoutResult(TransactionStatus status) {
+					userRepository.save(new User("Michal"));
+
+					Collection<User> users = userRepository.findByName("Michal");
+					assertEquals(1, users.size());
+					assertNotNull(users.iterator().next().getId());
+					assertNotNull(userRepository.findUserByName("Michal"));
+				}
+			});
+		} finally {
+			template.setWriteBehind(false);
+		}
+	}
 }
@@ -16,6 +16,7 @@ package org.springframework.data.neo4j.queries;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -28,6 +29,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -38,6 +40,7 @@ import org.neo4j.ogm.exception.MappingException;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.neo4j.examples.movies.context.MoviesContext;
+import org.springframework.data.neo4j.examples.movies.context.ThreadRecordingTaskExecutor;
 import org.springframework.data.neo4j.examples.movies.domain.Rating;
 import org.springframework.data.neo4j.examples.movies.domain.TempMovie;
 import org.springframework.data.neo4j.examples.movies.domain.User;
@@ -70,6 +73,9 @@ public class QueryIntegrationTest extends MultiDriverTestClass {
     @Autowired
     private CinemaRepository cinemaRepository;
 
+    @Autowired
+    private ThreadRecordingTaskExecutor taskExecutor;
+
     @Before
     public void init() {
         clearDatabase();
@@ -142,6 +148,17 @@ public class QueryIntegrationTest extends MultiDriverTestClass {
         assertEquals(users.size(), 2);
     }
 
+    @Test
+    public void shouldFindUsersAsynchronously() throws Exception {
+        executeUpdate("CREATE (m:User {name:'Michal'})<-[:FRIEND_OF]-(a:User {name:'Adam'})");
+
+        int submitted = taskExecutor.getThreads().size();
+        Collection<User> users = userRepository.getAllUsersAsync().get();
+        assertEquals(2, users.size());
+        assertEquals(submitted + 1, taskExecutor.getThreads().size());
+        assertNotSame(Thread.currentThread(), taskExecutor.getThreads().get(submitted));
+    }
+
     @Test
     public void shouldFindUserByNameWithNamedParam() {
         executeUpdate("CREATE (m:User {name:'Michal'})<-[:FRIEND_OF]-(a:User {name:'Adam'})");
@@ -184,6 +201,21 @@ public class QueryIntegrationTest extends MultiDriverTestClass {
         }
     }
 
+    @Test
+    public void shouldStreamQueryResultObjects() {
+        executeUpdate("CREATE (g:User {name:'Gary', age:32}), (s:User {name:'Sheila', age:29}), (v:User {name:'Vince', age:66})");
+
+        List<UserQueryResult> queryResults = new ArrayList<>();
+        try (Stream<UserQueryResult> stream = userRepository.streamAllUsersAndTheirAges()) {
+            for (Iterator<UserQueryResult> iterator = stream.iterator(); iterator.hasNext(); ) {
+                queryResults.add(iterator.next());
+            }
+        }
+
+        assertEquals(Arrays.asList(new UserQueryResult("Sheila", 29), new UserQueryResult("Gary", 32),
+                new UserQueryResult("Vince", 66)), queryResults);
+    }
+
     /**
      * This limitation about not handling unmanaged types may be addressed after M2 if there's demand for it.
      */
@@ -22,13 +22,31 @@ import org.springframework.data.neo4j.repositories.domain.Movie;
 import org.springframework.data.neo4j.repositories.domain.User;
 import org.springframework.data.neo4j.repositories.repo.MovieRepository;
 import org.springframework.data.neo4j.repositories.repo.UserRepository;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.neo4j.annotation.Query;
+import org.springframework.data.neo4j.repository.GraphRepository;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
+import org.springframework.data.neo4j.repository.support.EntityCache;
+import org.springframework.data.neo4j.repository.support.EntityCachePolicy;
 import org.springframework.data.neo4j.repository.support.GraphRepositoryFactory;
 import org.springframework.data.neo4j.template.Neo4jOperations;
 import org.springframework.data.neo4j.template.Neo4jTemplate;
 import org.springframework.data.neo4j.util.IterableUtils;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.neo4j.ogm.testutil.GraphTestUtils.assertSameGraph;
 
 /**
@@ -64,6 +82,11 @@ public class ProgrammaticRepositoryTest extends MultiDriverTestClass {
         assertEquals(1, IterableUtils.count(movieRepository.findAll()));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectRepositoryStreamingEntities() {
+        new GraphRepositoryFactory(session, neo4jOperations).getRepository(UserStreamRepository.class);
+    }
+
 	/**
      * @see DATAGRAPH-847
      */
@@ -85,4 +108,150 @@ public class ProgrammaticRepositoryTest extends MultiDriverTestClass {
         assertEquals(0, userRepository.count());
     }
 
+
+    @Test
+    public void shouldSaveIterableInBatches() {
+
+        GraphRepositoryFactory factory = new GraphRepositoryFactory(session, neo4jOperations);
+        factory.setBatchSize(2);
+
+        UserRepository userRepository = factory.getRepository(UserRepository.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(new User("User " + i));
+        }
+        userRepository.save(users);
+
+        assertEquals(5, userRepository.count());
+    }
+
+    @Test
+    public void shouldDeleteByIdAndIterableWithoutLoading() {
+
+        GraphRepositoryFactory factory = new GraphRepositoryFactory(session, neo4jOperations);
+        factory.setBatchSize(2);
+
+        UserRepository userRepository = factory.getRepository(UserRepository.class);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            users.add(new User("User " + i));
+        }
+        userRepository.save(users);
+
+        userRepository.delete(users.subList(0, 3));
+        assertEquals(2, userRepository.count());
+
+        userRepository.delete(neo4jOperations.resolveGraphIdFor(users.get(3)));
+        assertEquals(1, userRepository.count());
+        assertSameGraph(getGraphDatabaseService(), "CREATE (u:User {name:'User 4'})");
+    }
+
+    @Test
+    public void shouldCheckExistenceWithoutLoading() {
+
+        RepositoryFactorySupport factory = new GraphRepositoryFactory(session, neo4jOperations);
+
+        UserRepository userRepository = factory.getRepository(UserRepository.class);
+
+        User user = userRepository.save(new User("A"));
+        Long id = neo4jOperations.resolveGraphIdFor(user);
+        Long movieId = neo4jOperations.resolveGraphIdFor(neo4jOperations.save(new Movie("PF")));
+        session.clear();
+
+        assertTrue(userRepository.exists(id));
+        assertFalse(userRepository.exists(movieId));
+        assertEquals(Collections.singleton(id), userRepository.existsAll(Arrays.asList(id, movieId, id + movieId + 1)));
+    }
+
+    @Test
+    public void shouldPageThroughAllEntitiesByKeyset() {
+
+        RepositoryFactorySupport factory = new GraphRepositoryFactory(session, neo4jOperations);
+
+        UserRepository userRepository = factory.getRepository(UserRepository.class);
+
+        List<User> users = new ArrayList<>();
+        for (String name : Arrays.asList("E", "B", "D", "A", "C")) {
+            users.add(new User(name));
+        }
+        userRepository.save(users);
+
+        List<String> names = new ArrayList<>();
+        KeysetSlice<User> slice = userRepository.findAll(new KeysetRequest(2, new Sort(Sort.Direction.DESC, "name")));
+        for (;;) {
+            for (User user : slice) {
+                names.add(user.getName());
+            }
+            if (!slice.hasNext()) {
+                break;
+            }
+            slice = userRepository.findAll(slice.nextRequest());
+        }
+
+        assertEquals(Arrays.asList("E", "D", "C", "B", "A"), names);
+    }
+
+    @Test
+    public void shouldPageThroughDerivedFinderResultsByKeyset() {
+
+        RepositoryFactorySupport factory = new GraphRepositoryFactory(session, neo4jOperations);
+
+        UserRepository userRepository = factory.getRepository(UserRepository.class);
+
+        userRepository.save(Arrays.asList(new User("Anne"), new User("Bob"), new User("Alan"), new User("Alice")));
+
+        KeysetSlice<User> first = userRepository.findByNameLike("A*", new KeysetRequest(2, new Sort("name")));
+        assertEquals(2, first.getContent().size());
+        assertEquals("Alan", first.getContent().get(0).getName());
+        assertEquals("Alice", first.getContent().get(1).getName());
+        assertTrue(first.hasNext());
+
+        KeysetSlice<User> second = userRepository.findByNameLike("A*", first.nextRequest());
+        assertEquals(1, second.getContent().size());
+        assertEquals("Anne", second.getContent().get(0).getName());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    public void shouldServeFindOneFromEntityCacheUntilEntityIsSaved() {
+
+        final EntityCache entityCache = new EntityCache();
+        entityCache.enable(Movie.class, EntityCachePolicy.lru(100));
+        ((Neo4jTemplate) neo4jOperations).setApplicationEventPublisher(new ApplicationEventPublisher() {
+            @Override
+            public void publishEvent(ApplicationEvent event) {
+                entityCache.onApplicationEvent(event);
+            }
+
+            public void publishEvent(Object event) {
+                publishEvent((ApplicationEvent) event);
+            }
+        });
+
+        GraphRepositoryFactory factory = new GraphRepositoryFactory(session, neo4jOperations);
+        factory.setEntityCache(entityCache);
+        movieRepository = factory.getRepository(MovieRepository.class);
+
+        Movie movie = movieRepository.save(new Movie("PF"));
+        Long id = neo4jOperations.resolveGraphIdFor(movie);
+        neo4jOperations.clear();
+
+        Movie cached = movieRepository.findOne(id);
+        assertSame(cached, movieRepository.findOne(id));
+        assertEquals(1, entityCache.getStatistics(Movie.class).getHitCount());
+        assertEquals(1, entityCache.getStatistics(Movie.class).getMissCount());
+
+        movieRepository.save(cached);
+        assertEquals(1, entityCache.getStatistics(Movie.class).getInvalidationCount());
+        movieRepository.findOne(id);
+        assertEquals(2, entityCache.getStatistics(Movie.class).getMissCount());
+    }
+
+    interface UserStreamRepository extends GraphRepository<User> {
+
+        @Query("MATCH (user:User) RETURN user")
+        Stream<User> streamAllUsers();
+    }
 }
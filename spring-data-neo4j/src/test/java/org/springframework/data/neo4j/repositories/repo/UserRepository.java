@@ -15,6 +15,8 @@ package org.springframework.data.neo4j.repositories.repo;
 
 import org.springframework.data.neo4j.repositories.domain.User;
 import org.springframework.data.neo4j.repository.GraphRepository;
+import org.springframework.data.neo4j.repository.KeysetRequest;
+import org.springframework.data.neo4j.repository.KeysetSlice;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -22,4 +24,6 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface UserRepository extends GraphRepository<User> {
+
+    KeysetSlice<User> findByNameLike(String name, KeysetRequest request);
 }
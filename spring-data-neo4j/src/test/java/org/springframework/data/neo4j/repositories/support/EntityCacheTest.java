@@ -0,0 +1,154 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repositories.support;
+
+import org.junit.Test;
+import org.springframework.data.neo4j.event.AfterDeleteByIdEvent;
+import org.springframework.data.neo4j.repository.support.EntityCache;
+import org.springframework.data.neo4j.repository.support.EntityCachePolicy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Unit tests for {@code EntityCache}.
+ *
+ * @author Tobias Hartmann
+ */
+public class EntityCacheTest {
+
+    @Test
+    public void shouldOnlyCacheEnabledClasses() {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, EntityCachePolicy.lru(10));
+
+        cache.put(Integer.class, 1L, 1, 42);
+        assertFalse(cache.isEnabled(Integer.class));
+        assertNull(cache.get(Integer.class, 1L, 1));
+
+        cache.put(String.class, 1L, 1, "a");
+        assertSame("a", cache.get(String.class, 1L, 1));
+        assertNull(cache.get(String.class, 1L, 0));
+        assertEquals(1, cache.getStatistics(String.class).getHitCount());
+        assertEquals(1, cache.getStatistics(String.class).getMissCount());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntities() {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, EntityCachePolicy.lru(2));
+
+        cache.put(String.class, 1L, 1, "a");
+        cache.put(String.class, 2L, 1, "b");
+        cache.get(String.class, 1L, 1);
+        cache.put(String.class, 3L, 1, "c");
+
+        assertSame("a", cache.get(String.class, 1L, 1));
+        assertNull(cache.get(String.class, 2L, 1));
+        assertEquals(1, cache.getStatistics(String.class).getEvictionCount());
+        assertEquals(2, cache.getStatistics(String.class).getSize());
+    }
+
+    @Test
+    public void shouldEvictByWeight() {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, new EntityCachePolicy(5, EntityCachePolicy.NO_EXPIRY, new EntityCachePolicy.Weigher() {
+            @Override
+            public long weigh(Object entity) {
+                return ((String) entity).length();
+            }
+        }));
+
+        cache.put(String.class, 1L, 1, "abc");
+        cache.put(String.class, 2L, 1, "de");
+        cache.put(String.class, 3L, 1, "toolong");
+        assertEquals(2, cache.getStatistics(String.class).getSize());
+
+        cache.put(String.class, 4L, 1, "f");
+        assertNull(cache.get(String.class, 1L, 1));
+        assertSame("de", cache.get(String.class, 2L, 1));
+    }
+
+    @Test
+    public void shouldExpireEntities() throws InterruptedException {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, EntityCachePolicy.lru(10, 1));
+
+        cache.put(String.class, 1L, 1, "a");
+        Thread.sleep(5);
+        assertNull(cache.get(String.class, 1L, 1));
+        assertEquals(1, cache.getStatistics(String.class).getEvictionCount());
+    }
+
+    @Test
+    public void shouldInvalidateDeletedIdsAtAllDepths() {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, EntityCachePolicy.lru(10));
+
+        cache.put(String.class, 1L, 0, "a");
+        cache.put(String.class, 1L, 2, "a");
+        cache.put(String.class, 2L, 1, "b");
+        cache.onApplicationEvent(new AfterDeleteByIdEvent(this, String.class, Arrays.asList(1L)));
+
+        assertNull(cache.get(String.class, 1L, 0));
+        assertNull(cache.get(String.class, 1L, 2));
+        assertSame("b", cache.get(String.class, 2L, 1));
+        assertEquals(2, cache.getStatistics(String.class).getInvalidationCount());
+    }
+
+    @Test
+    public void shouldNotCacheEntitiesLoadedBeforeAnInvalidation() {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, EntityCachePolicy.lru(10));
+
+        long generation = cache.generation(String.class);
+        cache.onApplicationEvent(new AfterDeleteByIdEvent(this, String.class, Arrays.asList(1L)));
+        cache.put(String.class, 1L, 1, "stale", generation);
+        assertNull(cache.get(String.class, 1L, 1));
+
+        cache.put(String.class, 1L, 1, "current", cache.generation(String.class));
+        assertSame("current", cache.get(String.class, 1L, 1));
+    }
+
+    @Test
+    public void shouldBypassCacheInWritableTransactions() {
+        EntityCache cache = new EntityCache();
+        cache.enable(String.class, EntityCachePolicy.lru(10));
+        cache.put(String.class, 1L, 1, "a");
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertNull(cache.get(String.class, 1L, 1));
+            cache.put(String.class, 2L, 1, "b");
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertSame("a", cache.get(String.class, 1L, 1));
+        assertNull(cache.get(String.class, 2L, 1));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertSame("a", cache.get(String.class, 1L, 1));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repositories.support;
+
+import org.junit.Test;
+import org.springframework.data.neo4j.event.AfterDeleteByIdEvent;
+import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.examples.movies.domain.Cinema;
+import org.springframework.data.neo4j.examples.movies.domain.Rating;
+import org.springframework.data.neo4j.examples.movies.domain.User;
+import org.springframework.data.neo4j.repository.support.QueryResultCache;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Unit tests for {@code QueryResultCache}.
+ *
+ * @author Tobias Hartmann
+ */
+public class QueryResultCacheTest {
+
+    @Test
+    public void shouldExecuteQueriesOnlyOnMisses() {
+        QueryResultCache.Region region = new QueryResultCache().createRegion(Collections.singleton("User"), 60000, 10);
+        Counter counter = new Counter("a");
+
+        assertEquals("a", region.get("q1", counter));
+        assertEquals("a", region.get("q1", counter));
+        assertEquals(1, counter.executions.get());
+        assertEquals(1, region.getHitCount());
+        assertEquals(1, region.getMissCount());
+    }
+
+    @Test
+    public void shouldCacheNullResults() {
+        QueryResultCache.Region region = new QueryResultCache().createRegion(Collections.singleton("User"), 60000, 10);
+        Counter counter = new Counter(null);
+
+        assertNull(region.get("q1", counter));
+        assertNull(region.get("q1", counter));
+        assertEquals(1, counter.executions.get());
+    }
+
+    @Test
+    public void shouldExpireResults() throws InterruptedException {
+        QueryResultCache.Region region = new QueryResultCache().createRegion(Collections.singleton("User"), 10, 10);
+        Counter counter = new Counter("a");
+
+        region.get("q1", counter);
+        Thread.sleep(20);
+        region.get("q1", counter);
+        assertEquals(2, counter.executions.get());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResults() {
+        QueryResultCache.Region region = new QueryResultCache().createRegion(Collections.singleton("User"), 60000, 2);
+        Counter counter = new Counter("a");
+
+        region.get("q1", counter);
+        region.get("q2", counter);
+        region.get("q1", counter);
+        region.get("q3", counter);
+        assertEquals(2, region.size());
+
+        region.get("q1", counter);
+        assertEquals(3, counter.executions.get());
+        region.get("q2", counter);
+        assertEquals(4, counter.executions.get());
+    }
+
+    @Test
+    public void shouldInvalidateRegionsDependingOnTheLabelsOfSavedEntities() {
+        QueryResultCache cache = new QueryResultCache();
+        QueryResultCache.Region users = cache.createRegion(Collections.singleton("User"), 60000, 10);
+        QueryResultCache.Region cinemas = cache.createRegion(Collections.singleton("Theatre"), 60000, 10);
+        users.get("q1", new Counter("a"));
+        cinemas.get("q1", new Counter("b"));
+
+        cache.onApplicationEvent(new AfterSaveEvent(this, new User("Michal")));
+        assertEquals(0, users.size());
+        assertEquals(1, cinemas.size());
+
+        cache.onApplicationEvent(new AfterSaveEvent(this, Arrays.asList(new Cinema("Picturehouse", 100))));
+        assertEquals(0, cinemas.size());
+    }
+
+    @Test
+    public void shouldInvalidateRegionsOfEntitiesDeletedById() {
+        QueryResultCache cache = new QueryResultCache();
+        QueryResultCache.Region users = cache.createRegion(Collections.singleton("User"), 60000, 10);
+        QueryResultCache.Region cinemas = cache.createRegion(Collections.singleton("Theatre"), 60000, 10);
+
+        users.get("q1", new Counter("a"));
+        cinemas.get("q1", new Counter("b"));
+        cache.onApplicationEvent(new AfterDeleteByIdEvent(this, User.class, Arrays.asList(1L, 2L)));
+        assertEquals(0, users.size());
+        assertEquals(1, cinemas.size());
+    }
+
+    @Test
+    public void shouldInvalidateAllRegionsWhenChangedEntitiesAreUnknown() {
+        QueryResultCache cache = new QueryResultCache();
+        QueryResultCache.Region users = cache.createRegion(Collections.singleton("User"), 60000, 10);
+        QueryResultCache.Region cinemas = cache.createRegion(Collections.singleton("Theatre"), 60000, 10);
+
+        users.get("q1", new Counter("a"));
+        cinemas.get("q1", new Counter("b"));
+        cache.onApplicationEvent(new AfterSaveEvent(this, new Rating()));
+        assertEquals(0, users.size());
+        assertEquals(0, cinemas.size());
+    }
+
+    @Test
+    public void shouldBypassRegionInWritableTransactions() {
+        QueryResultCache.Region region = new QueryResultCache().createRegion(Collections.singleton("User"), 60000, 10);
+        region.get("q1", new Counter("a"));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals("b", region.get("q1", new Counter("b")));
+            region.get("q2", new Counter("c"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals("a", region.get("q1", new Counter("b")));
+        assertEquals(1, region.size());
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            assertEquals("a", region.get("q1", new Counter("b")));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    public void shouldWorkOutTheLabelsOfEntityClasses() {
+        assertEquals(new HashSet<>(Arrays.asList("User", "Person")), QueryResultCache.labelsOf(User.class));
+        assertEquals(Collections.singleton("Theatre"), QueryResultCache.labelsOf(Cinema.class));
+        assertEquals(Collections.singleton("RATED"), QueryResultCache.labelsOf(Rating.class));
+    }
+
+    private static class Counter implements QueryResultCache.ResultCallback {
+
+        private final Object result;
+        private final AtomicInteger executions = new AtomicInteger();
+
+        Counter(Object result) {
+            this.result = result;
+        }
+
+        @Override
+        public Object execute() {
+            executions.incrementAndGet();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.repository.support;
+
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.neo4j.repository.PagingStrategy;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for {@code PageTotalCalculator}.
+ *
+ * @author Tobias Hartmann
+ */
+public class PageTotalCalculatorTest {
+
+    private static final List<String> FULL_PAGE = Arrays.asList("a", "b", "c");
+
+    @Test
+    public void shouldEstimateTotalByDefault() {
+        CountingCallback callback = new CountingCallback(100);
+        Page<String> page = new PageTotalCalculator().toPage(FULL_PAGE, new PageRequest(2, 3), String.class, callback);
+
+        assertEquals(12, page.getTotalElements());
+        assertTrue(page.hasNext());
+        assertEquals(0, callback.invocations);
+    }
+
+    @Test
+    public void shouldCountExactTotalForFullPages() {
+        CountingCallback callback = new CountingCallback(100);
+        PageTotalCalculator calculator = new PageTotalCalculator(PagingStrategy.EXACT, 0);
+
+        assertEquals(100, calculator.toPage(FULL_PAGE, new PageRequest(2, 3), String.class, callback).getTotalElements());
+        assertEquals(100, calculator.toPage(FULL_PAGE, new PageRequest(2, 3), String.class, callback).getTotalElements());
+        assertEquals(2, callback.invocations);
+    }
+
+    @Test
+    public void shouldNotCountWhenPageIsNotFull() {
+        CountingCallback callback = new CountingCallback(100);
+        PageTotalCalculator calculator = new PageTotalCalculator(PagingStrategy.EXACT, 0);
+
+        Page<String> page = calculator.toPage(Arrays.asList("a"), new PageRequest(2, 3), String.class, callback);
+
+        assertEquals(7, page.getTotalElements());
+        assertFalse(page.hasNext());
+        assertEquals(0, callback.invocations);
+    }
+
+    @Test
+    public void shouldCountWhenPageIsEmptyBeyondTheLastElement() {
+        CountingCallback callback = new CountingCallback(4);
+        PageTotalCalculator calculator = new PageTotalCalculator(PagingStrategy.EXACT, 0);
+
+        assertEquals(4, calculator.toPage(Collections.<String>emptyList(), new PageRequest(5, 3), String.class, callback).getTotalElements());
+        assertEquals(1, callback.invocations);
+    }
+
+    @Test
+    public void shouldReuseCachedCountUntilEvicted() {
+        CountingCallback callback = new CountingCallback(100);
+        PageTotalCalculator calculator = new PageTotalCalculator(PagingStrategy.CACHED, 60000);
+
+        calculator.toPage(FULL_PAGE, new PageRequest(0, 3), String.class, callback);
+        calculator.toPage(FULL_PAGE, new PageRequest(1, 3), String.class, callback);
+        assertEquals(1, callback.invocations);
+
+        calculator.evict(String.class);
+        calculator.toPage(FULL_PAGE, new PageRequest(1, 3), String.class, callback);
+        assertEquals(2, callback.invocations);
+    }
+
+    private static class CountingCallback implements PageTotalCalculator.CountCallback {
+
+        private final long count;
+        private int invocations;
+
+        CountingCallback(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public long count() {
+            invocations++;
+            return count;
+        }
+    }
+}
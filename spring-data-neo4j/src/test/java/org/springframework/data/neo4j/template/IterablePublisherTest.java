@@ -0,0 +1,318 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.scheduling.annotation.AsyncResult;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks {@link IterablePublisher} against the rules of the Reactive Streams specification, numbered as in the
+ * specification.
+ *
+ * @author Tobias Hartmann
+ */
+public class IterablePublisherTest {
+
+    @Test
+    public void shouldNotEmitMoreThanRequested() {
+        RecordingSubscriber<Integer> subscriber = subscribe(publisher(1, 2, 3, 4, 5));
+
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(1, 2), subscriber.elements);
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(3);
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), subscriber.elements);
+        assertTrue(subscriber.completed);
+        assertEquals(1, subscriber.terminalSignals());
+    }
+
+    @Test
+    public void shouldOpenSourceOnFirstRequestOfEverySubscriber() {
+        final AtomicInteger opened = new AtomicInteger();
+        IterablePublisher<Integer> publisher = new IterablePublisher<>(new IterablePublisher.Source<Integer>() {
+            @Override
+            public ListenableFuture<? extends Iterable<Integer>> open() {
+                opened.incrementAndGet();
+                return new AsyncResult<Iterable<Integer>>(Arrays.asList(1, 2));
+            }
+        });
+
+        RecordingSubscriber<Integer> first = subscribe(publisher);
+        RecordingSubscriber<Integer> second = subscribe(publisher);
+        assertEquals(0, opened.get());
+
+        first.subscription.request(1);
+        first.subscription.request(1);
+        second.subscription.request(Long.MAX_VALUE);
+        assertEquals(2, opened.get());
+        assertEquals(Arrays.asList(1, 2), first.elements);
+        assertEquals(Arrays.asList(1, 2), second.elements);
+    }
+
+    /**
+     * Rule 1.9
+     */
+    @Test(expected = NullPointerException.class)
+    public void shouldRejectNullSubscriber() {
+        publisher(1).subscribe(null);
+    }
+
+    /**
+     * Rule 3.3
+     */
+    @Test
+    public void shouldNotRecurseWhenRequestingFromOnNext() {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            values.add(i);
+        }
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer element) {
+                super.onNext(element);
+                subscription.request(1);
+            }
+        };
+        new IterablePublisher<>(source(values)).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals(values, subscriber.elements);
+        assertTrue(subscriber.completed);
+    }
+
+    /**
+     * Rule 3.6
+     */
+    @Test
+    public void shouldIgnoreRequestsAfterCancel() {
+        final AtomicInteger opened = new AtomicInteger();
+        RecordingSubscriber<Integer> subscriber = subscribe(new IterablePublisher<>(new IterablePublisher.Source<Integer>() {
+            @Override
+            public ListenableFuture<? extends Iterable<Integer>> open() {
+                opened.incrementAndGet();
+                return new AsyncResult<Iterable<Integer>>(Arrays.asList(1, 2));
+            }
+        }));
+
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+        subscriber.subscription.request(-1);
+        assertEquals(0, opened.get());
+        assertEquals(0, subscriber.terminalSignals());
+        assertTrue(subscriber.elements.isEmpty());
+    }
+
+    /**
+     * Rules 3.7 and 3.8
+     */
+    @Test
+    public void shouldStopEmittingOnceCancelled() {
+        RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<Integer>() {
+            @Override
+            public void onNext(Integer element) {
+                super.onNext(element);
+                if (elements.size() == 2) {
+                    subscription.cancel();
+                    subscription.cancel();
+                }
+            }
+        };
+        publisher(1, 2, 3, 4).subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(1, 2), subscriber.elements);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    /**
+     * Rule 3.9
+     */
+    @Test
+    public void shouldSignalErrorForNonPositiveRequest() {
+        RecordingSubscriber<Integer> zero = subscribe(publisher(1, 2));
+        zero.subscription.request(0);
+        assertTrue(zero.error instanceof IllegalArgumentException);
+        assertTrue(zero.elements.isEmpty());
+
+        RecordingSubscriber<Integer> negative = subscribe(publisher(1, 2));
+        negative.subscription.request(1);
+        negative.subscription.request(-1);
+        negative.subscription.request(1);
+        assertTrue(negative.error instanceof IllegalArgumentException);
+        assertEquals(Collections.singletonList(1), negative.elements);
+        assertEquals(1, negative.terminalSignals());
+    }
+
+    /**
+     * Rule 3.17
+     */
+    @Test
+    public void shouldTreatDemandBeyondLongMaxValueAsUnbounded() {
+        final SettableListenableFuture<Iterable<Integer>> future = new SettableListenableFuture<>();
+        RecordingSubscriber<Integer> subscriber = subscribe(new IterablePublisher<>(new IterablePublisher.Source<Integer>() {
+            @Override
+            public ListenableFuture<? extends Iterable<Integer>> open() {
+                return future;
+            }
+        }));
+
+        subscriber.subscription.request(Long.MAX_VALUE - 1);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        future.set(Arrays.asList(1, 2, 3));
+        assertEquals(Arrays.asList(1, 2, 3), subscriber.elements);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void shouldSignalErrorWhenSourceFails() {
+        final SettableListenableFuture<Iterable<Integer>> future = new SettableListenableFuture<>();
+        RecordingSubscriber<Integer> subscriber = subscribe(new IterablePublisher<>(new IterablePublisher.Source<Integer>() {
+            @Override
+            public ListenableFuture<? extends Iterable<Integer>> open() {
+                return future;
+            }
+        }));
+
+        subscriber.subscription.request(1);
+        assertNull(subscriber.error);
+
+        IllegalStateException failure = new IllegalStateException("Query failed");
+        future.setException(failure);
+        assertSame(failure, subscriber.error);
+        assertEquals(1, subscriber.terminalSignals());
+    }
+
+    @Test
+    public void shouldSignalErrorWhenIterationFails() {
+        final IllegalStateException failure = new IllegalStateException("Result stream closed");
+        RecordingSubscriber<Integer> subscriber = subscribe(new IterablePublisher<>(source(new Iterable<Integer>() {
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<Integer>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (next == 1) {
+                            throw failure;
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        return next++;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        })));
+
+        subscriber.subscription.request(5);
+        assertEquals(Collections.singletonList(0), subscriber.elements);
+        assertSame(failure, subscriber.error);
+
+        subscriber.subscription.request(5);
+        assertEquals(1, subscriber.terminalSignals());
+    }
+
+    @Test
+    public void shouldCompleteEmptySourceOnRequest() {
+        RecordingSubscriber<Integer> subscriber = subscribe(new IterablePublisher<>(source(null)));
+
+        subscriber.subscription.request(1);
+        assertTrue(subscriber.completed);
+        assertTrue(subscriber.elements.isEmpty());
+    }
+
+    @SafeVarargs
+    private static <T> IterablePublisher<T> publisher(T... elements) {
+        return new IterablePublisher<>(source(Arrays.asList(elements)));
+    }
+
+    private static <T> IterablePublisher.Source<T> source(final Iterable<T> elements) {
+        return new IterablePublisher.Source<T>() {
+            @Override
+            public ListenableFuture<? extends Iterable<T>> open() {
+                return new AsyncResult<>(elements);
+            }
+        };
+    }
+
+    private static <T> RecordingSubscriber<T> subscribe(IterablePublisher<T> publisher) {
+        RecordingSubscriber<T> subscriber = new RecordingSubscriber<>();
+        publisher.subscribe(subscriber);
+        assertNotNull("onSubscribe should have been signalled", subscriber.subscription);
+        return subscriber;
+    }
+
+    private static class RecordingSubscriber<T> implements Subscriber<T> {
+
+        final List<T> elements = new ArrayList<>();
+        Subscription subscription;
+        Throwable error;
+        boolean completed;
+        private int terminations;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            assertNull("onSubscribe must be signalled once", this.subscription);
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T element) {
+            assertEquals("onNext must not follow a terminal signal", 0, terminations);
+            elements.add(element);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            terminations++;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminations++;
+        }
+
+        /**
+         * @return the number of terminal signals received, which must never exceed one (rule 1.7)
+         */
+        int terminalSignals() {
+            return terminations;
+        }
+    }
+}
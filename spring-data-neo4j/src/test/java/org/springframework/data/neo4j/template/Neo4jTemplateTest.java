@@ -27,19 +27,37 @@ import org.neo4j.ogm.cypher.Filters;
 import org.neo4j.ogm.model.QueryStatistics;
 import org.neo4j.ogm.model.Result;
 import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
 import org.neo4j.ogm.session.Utils;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.neo4j.examples.movies.domain.*;
+import org.springframework.data.neo4j.metrics.InMemoryNeo4jMetrics;
+import org.springframework.data.neo4j.metrics.OperationStatistics;
+import org.springframework.data.neo4j.metrics.SlowQueryLog;
 import org.springframework.data.neo4j.template.context.Neo4jTemplateConfiguration;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.*;
 import static org.neo4j.ogm.session.Utils.map;
@@ -57,6 +75,8 @@ public class Neo4jTemplateTest extends MultiDriverTestClass {
 
     @Autowired private Neo4jOperations template;
     @Autowired private Session session;
+    @Autowired private SessionFactory sessionFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
 
     @Before
     public void setUpOgmSession() {
@@ -496,4 +516,277 @@ public class Neo4jTemplateTest extends MultiDriverTestClass {
             fail("Should not have thrown exception: " + e.getLocalizedMessage());
         }
     }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntitiesFromBoundedIdentityMap() {
+        Neo4jTemplate boundedTemplate = new Neo4jTemplate(sessionFactory.openSession());
+        boundedTemplate.setMaxResidentEntities(2);
+
+        Genre comedy = boundedTemplate.save(new Genre("Comedy"));
+        Genre action = boundedTemplate.save(new Genre("Action"));
+        Genre drama = boundedTemplate.save(new Genre("Drama"));
+
+        IdentityMapStatistics statistics = boundedTemplate.getIdentityMapStatistics();
+        assertEquals(2, statistics.getResidentEntityCount());
+        assertEquals(1, statistics.getEvictionCount());
+
+        assertNotNull(boundedTemplate.load(Genre.class, drama.getId()));
+        assertNotNull(boundedTemplate.load(Genre.class, comedy.getId()));
+
+        statistics = boundedTemplate.getIdentityMapStatistics();
+        assertEquals(1, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(0.5, statistics.getHitRate(), 0);
+        assertEquals(2, statistics.getResidentEntityCount());
+        assertEquals(2, statistics.getEvictionCount());
+        assertNotNull(action.getId());
+    }
+
+    @Test
+    public void shouldOnlyTrackEntitiesOfSharedSessionWithinTransaction() {
+        final Neo4jTemplate boundedTemplate = new Neo4jTemplate(session);
+        boundedTemplate.setMaxResidentEntities(2);
+
+        boundedTemplate.save(new Genre("Comedy"));
+        assertEquals(0, boundedTemplate.getIdentityMapStatistics().getResidentEntityCount());
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                boundedTemplate.save(new Genre("Action"));
+                boundedTemplate.save(new Genre("Drama"));
+                boundedTemplate.save(new Genre("Horror"));
+                assertEquals(3, boundedTemplate.getIdentityMapStatistics().getResidentEntityCount());
+            }
+        });
+
+        assertEquals(0, boundedTemplate.getIdentityMapStatistics().getResidentEntityCount());
+    }
+
+    @Test
+    public void shouldDeferSavesUntilCommitInWriteBehindMode() {
+        final Neo4jTemplate writeBehindTemplate = new Neo4jTemplate(session);
+        writeBehindTemplate.setWriteBehind(true);
+        final Genre comedy = new Genre("Comedy");
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                writeBehindTemplate.save(comedy);
+                comedy.setName("Dark Comedy");
+                writeBehindTemplate.save(comedy);
+                assertNull("The save should have been deferred", comedy.getId());
+
+                writeBehindTemplate.save(new Genre("Action"));
+                assertEquals("Pending saves should be flushed before reading", 2, writeBehindTemplate.count(Genre.class));
+                assertNotNull(comedy.getId());
+
+                writeBehindTemplate.save(new Genre("Drama"));
+            }
+        });
+
+        assertEquals(3, template.count(Genre.class));
+        assertEquals("Dark Comedy", template.load(Genre.class, comedy.getId()).getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectAsyncTemplateSharingPlainSession() {
+        new AsyncNeo4jTemplate(new Neo4jTemplate(sessionFactory.openSession()), transactionManager);
+    }
+
+    @Test
+    public void shouldRunOperationsAsynchronously() throws Exception {
+        AsyncNeo4jTemplate asyncTemplate = new AsyncNeo4jTemplate(template, transactionManager);
+        try {
+            Genre comedy = asyncTemplate.save(new Genre("Comedy")).get();
+            assertNotNull(comedy.getId());
+
+            Genre loaded = asyncTemplate.load(Genre.class, comedy.getId()).get();
+            assertEquals("Comedy", loaded.getName());
+            assertEquals(Long.valueOf(1), asyncTemplate.count(Genre.class).get());
+        } finally {
+            asyncTemplate.destroy();
+        }
+    }
+
+    @Test
+    public void shouldRunAsynchronousQueriesForObjectsReadOnly() throws Exception {
+        template.save(new Genre("Comedy"));
+        final List<TransactionDefinition> definitions = new CopyOnWriteArrayList<>();
+        PlatformTransactionManager recordingTransactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                definitions.add(definition);
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+
+        AsyncNeo4jTemplate asyncTemplate = new AsyncNeo4jTemplate(template, recordingTransactionManager);
+        try {
+            String cypher = "MATCH (g:Genre) RETURN g";
+            assertEquals("Comedy", asyncTemplate.queryForObject(Genre.class, cypher, map()).get().getName());
+            assertTrue(asyncTemplate.queryForObjects(Genre.class, cypher, map()).get().iterator().hasNext());
+            assertTrue(asyncTemplate.query(cypher, map(), true).get().queryResults().iterator().hasNext());
+        } finally {
+            asyncTemplate.destroy();
+        }
+
+        assertEquals(3, definitions.size());
+        for (TransactionDefinition definition : definitions) {
+            assertTrue(definition.isReadOnly());
+        }
+    }
+
+    @Test
+    public void shouldPublishResultsAsTheyAreRequested() throws Exception {
+        template.save(new Genre("Comedy"));
+        template.save(new Genre("Action"));
+        template.save(new Genre("Drama"));
+
+        AsyncNeo4jTemplate asyncTemplate = new AsyncNeo4jTemplate(template, transactionManager);
+        try {
+            final List<Genre> received = new CopyOnWriteArrayList<>();
+            final AtomicReference<Subscription> subscription = new AtomicReference<>();
+            final CountDownLatch first = new CountDownLatch(1);
+            final CountDownLatch completed = new CountDownLatch(1);
+
+            new ReactiveNeo4jTemplate(asyncTemplate).loadAll(Genre.class, 0).subscribe(new Subscriber<Genre>() {
+                @Override
+                public void onSubscribe(Subscription s) {
+                    subscription.set(s);
+                    s.request(1);
+                }
+
+                @Override
+                public void onNext(Genre genre) {
+                    received.add(genre);
+                    first.countDown();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+            assertTrue(first.await(10, TimeUnit.SECONDS));
+            assertEquals(1, received.size());
+
+            subscription.get().request(Long.MAX_VALUE);
+            assertTrue(completed.await(10, TimeUnit.SECONDS));
+            assertEquals(3, received.size());
+        } finally {
+            asyncTemplate.destroy();
+        }
+    }
+
+    @Test
+    public void shouldLoadIdsInChunksInIdOrder() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (String name : new String[] {"Comedy", "Action", "Drama", "Horror", "Western"}) {
+            ids.add(template.save(new Genre(name)).getId());
+        }
+        Collections.reverse(ids);
+
+        Neo4jTemplate chunkedTemplate = new Neo4jTemplate(session);
+        chunkedTemplate.setLoadChunkSize(2);
+        assertEquals(ids, idsOf(chunkedTemplate.loadAll(Genre.class, ids, 0)));
+
+        AsyncNeo4jTemplate asyncTemplate = new AsyncNeo4jTemplate(template, transactionManager);
+        try {
+            asyncTemplate.setLoadChunkSize(2);
+            asyncTemplate.setLoadChunkParallelism(2);
+            assertEquals(ids, idsOf(asyncTemplate.loadAll(Genre.class, ids, 0).get()));
+        } finally {
+            asyncTemplate.destroy();
+        }
+    }
+
+    @Test
+    public void shouldRecordOperationsAndTransactions() {
+        InMemoryNeo4jMetrics metrics = new InMemoryNeo4jMetrics();
+        final Neo4jOperations instrumentedTemplate = new InstrumentedNeo4jOperations(new Neo4jTemplate(session), metrics);
+        Neo4jTransactionManager instrumentedTransactionManager = new Neo4jTransactionManager(session);
+        instrumentedTransactionManager.setMetrics(metrics);
+
+        new TransactionTemplate(instrumentedTransactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                instrumentedTemplate.save(new Genre("Comedy"));
+                instrumentedTemplate.save(new Genre("Action"));
+            }
+        });
+        instrumentedTemplate.loadAll(Genre.class, 0);
+        instrumentedTemplate.query("MATCH (g:Genre) RETURN g.name AS name", Utils.map());
+
+        List<OperationStatistics> loads = metrics.getOperationStatistics("Neo4jTemplate", "loadAll");
+        assertEquals(1, loads.size());
+        assertEquals(0, loads.get(0).getDepth());
+        assertEquals(1, loads.get(0).getCount());
+        assertEquals(2, loads.get(0).getEntityResults());
+        assertTrue(loads.get(0).getP99Time(TimeUnit.NANOSECONDS) > 0);
+
+        assertEquals(2, metrics.getOperationStatistics("Neo4jTemplate", "save").get(0).getCount());
+        OperationStatistics query = metrics.getOperationStatistics("Neo4jTemplate", "query").get(0);
+        assertEquals(0, query.getEntityResults());
+
+        assertEquals(1, metrics.getTransactionStatistics().getCommitCount());
+        assertEquals(0, metrics.getTransactionStatistics().getRollbackCount());
+    }
+
+    @Test
+    public void shouldRecordFailedOperations() {
+        InMemoryNeo4jMetrics metrics = new InMemoryNeo4jMetrics();
+        Neo4jOperations instrumentedTemplate = new InstrumentedNeo4jOperations(new Neo4jTemplate(session), metrics);
+
+        RuntimeException failure = null;
+        try {
+            instrumentedTemplate.query("MATCH (g:Genre RETURN g", Utils.map());
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        assertNotNull(failure);
+
+        OperationStatistics query = metrics.getOperationStatistics("Neo4jTemplate", "query").get(0);
+        assertEquals(0, query.getCount());
+        assertEquals(1, query.getFailureCount());
+        assertEquals(Long.valueOf(1), query.getFailures().get(failure.getClass().getName()));
+    }
+
+    @Test
+    public void shouldLogSlowQueries() {
+        template.save(new Genre("Comedy"));
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0);
+        Neo4jTemplate loggingTemplate = new Neo4jTemplate(session);
+        loggingTemplate.setSlowQueryLog(slowQueryLog);
+
+        loggingTemplate.query("MATCH (g:Genre) WHERE g.name = {name} RETURN g.name AS name", Collections.singletonMap("name", "Comedy"));
+
+        List<SlowQueryLog.SlowQuery> slowQueries = slowQueryLog.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals("Neo4jTemplate.query", slowQueries.get(0).getSource());
+        assertEquals("String", slowQueries.get(0).getParameters().get("name"));
+    }
+
+    private static List<Long> idsOf(Collection<Genre> genres) {
+        List<Long> ids = new ArrayList<>();
+        for (Genre genre : genres) {
+            ids.add(genre.getId());
+        }
+        return ids;
+    }
 }
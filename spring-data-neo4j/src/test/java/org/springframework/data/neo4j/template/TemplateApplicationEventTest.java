@@ -17,8 +17,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.neo4j.ogm.testutil.MultiDriverTestClass;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.event.AfterDeleteByIdEvent;
 import org.springframework.data.neo4j.event.AfterDeleteEvent;
 import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BeforeDeleteByIdEvent;
 import org.springframework.data.neo4j.event.BeforeDeleteEvent;
 import org.springframework.data.neo4j.event.BeforeSaveEvent;
 import org.springframework.data.neo4j.examples.movies.domain.Actor;
@@ -26,6 +28,10 @@ import org.springframework.data.neo4j.template.context.DataManipulationEventConf
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 /**
  * Test to assert the behaviour of {@link Neo4jTemplate}'s interaction with Spring application events.
@@ -46,6 +52,10 @@ public class TemplateApplicationEventTest extends MultiDriverTestClass {
     private TestNeo4jEventListener<BeforeDeleteEvent> beforeDeleteEventListener;
     @Autowired
     private TestNeo4jEventListener<AfterDeleteEvent> afterDeleteEventListener;
+    @Autowired
+    private TestNeo4jEventListener<BeforeDeleteByIdEvent> beforeDeleteByIdEventListener;
+    @Autowired
+    private TestNeo4jEventListener<AfterDeleteByIdEvent> afterDeleteByIdEventListener;
 
     @Test
     public void shouldCreateTemplateAndPublishAppropriateApplicationEventsOnSaveAndOnDelete() {
@@ -71,4 +81,23 @@ public class TemplateApplicationEventTest extends MultiDriverTestClass {
         assertSame(entity, this.afterDeleteEventListener.getEvent().getEntity());
     }
 
+    @Test
+    public void shouldPublishDeleteByIdEventsWhenDeletingById() {
+        Map<String, Object> row = this.neo4jTemplate.query("CREATE (a:Actor {name:'Rahul Bose'}) RETURN ID(a) AS id",
+                Collections.<String, Object>emptyMap()).queryResults().iterator().next();
+        Long id = ((Number) row.get("id")).longValue();
+
+        assertFalse(this.beforeDeleteByIdEventListener.hasReceivedAnEvent());
+        assertFalse(this.afterDeleteByIdEventListener.hasReceivedAnEvent());
+        this.neo4jTemplate.deleteAll(Actor.class, Collections.singletonList(id));
+        assertTrue(this.beforeDeleteByIdEventListener.hasReceivedAnEvent());
+        BeforeDeleteByIdEvent beforeEvent = this.beforeDeleteByIdEventListener.getEvent();
+        assertEquals(Actor.class, beforeEvent.getEntityType());
+        assertEquals(Collections.singletonList(id), new ArrayList<>(beforeEvent.getIds()));
+        assertTrue(this.afterDeleteByIdEventListener.hasReceivedAnEvent());
+        AfterDeleteByIdEvent afterEvent = this.afterDeleteByIdEventListener.getEvent();
+        assertEquals(Collections.singletonList(id), new ArrayList<>(afterEvent.getIds()));
+        assertNull(this.neo4jTemplate.load(Actor.class, id));
+    }
+
 }
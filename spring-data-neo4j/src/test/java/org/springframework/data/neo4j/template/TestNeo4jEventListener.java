@@ -13,19 +13,19 @@
 
 package org.springframework.data.neo4j.template;
 
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
-import org.springframework.data.neo4j.event.Neo4jDataManipulationEvent;
 
 /**
- * Spring {@code ApplicationListener} used to capture {@link Neo4jDataManipulationEvent}s that occur during a test run.
+ * Spring {@code ApplicationListener} used to capture the events published by {@link Neo4jTemplate} during a test run.
  * Note that this is abstract because you're supposed to create an anonymous subclass to handle event type 'E' when you
- * use it.  This ensures Spring doesn't just send {@link Neo4jDataManipulationEvent}s to everything regardless.
+ * use it.  This ensures Spring doesn't just send every {@link ApplicationEvent} to everything regardless.
  *
  * @author Adam George
  */
-public abstract class TestNeo4jEventListener<E extends Neo4jDataManipulationEvent> implements ApplicationListener<E> {
+public abstract class TestNeo4jEventListener<E extends ApplicationEvent> implements ApplicationListener<E> {
 
-    private Neo4jDataManipulationEvent event;
+    private E event;
 
     @Override
     public void onApplicationEvent(E event) {
@@ -36,7 +36,7 @@ public abstract class TestNeo4jEventListener<E extends Neo4jDataManipulationEven
         return this.event != null;
     }
 
-    public Neo4jDataManipulationEvent getEvent() {
+    public E getEvent() {
         return event;
     }
 
@@ -18,8 +18,10 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.neo4j.config.Neo4jConfiguration;
+import org.springframework.data.neo4j.event.AfterDeleteByIdEvent;
 import org.springframework.data.neo4j.event.AfterDeleteEvent;
 import org.springframework.data.neo4j.event.AfterSaveEvent;
+import org.springframework.data.neo4j.event.BeforeDeleteByIdEvent;
 import org.springframework.data.neo4j.event.BeforeDeleteEvent;
 import org.springframework.data.neo4j.event.BeforeSaveEvent;
 import org.springframework.data.neo4j.template.TestNeo4jEventListener;
@@ -60,4 +62,14 @@ public class DataManipulationEventConfiguration extends Neo4jConfiguration {
         return new TestNeo4jEventListener<AfterDeleteEvent>() {};
     }
 
+    @Bean
+    public ApplicationListener<BeforeDeleteByIdEvent> beforeDeleteByIdEventListener() {
+        return new TestNeo4jEventListener<BeforeDeleteByIdEvent>() {};
+    }
+
+    @Bean
+    public ApplicationListener<AfterDeleteByIdEvent> afterDeleteByIdEventListener() {
+        return new TestNeo4jEventListener<AfterDeleteByIdEvent>() {};
+    }
+
 }
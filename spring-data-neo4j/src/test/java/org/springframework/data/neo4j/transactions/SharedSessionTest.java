@@ -0,0 +1,213 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transactions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.neo4j.template.Neo4jTemplate;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.data.neo4j.transaction.ReadReplicaRoutingPolicy;
+import org.springframework.data.neo4j.transaction.SessionProxy;
+import org.springframework.data.neo4j.transaction.SessionRoutingPolicy;
+import org.springframework.data.neo4j.transaction.SharedSessionCreator;
+import org.springframework.data.neo4j.transactions.domain.User;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Tobias Hartmann
+ */
+public class SharedSessionTest extends MultiDriverTestClass {
+
+    private SessionFactory sessionFactory;
+    private Session sharedSession;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.springframework.data.neo4j.transactions.domain");
+        sharedSession = SharedSessionCreator.createSharedSession(sessionFactory);
+    }
+
+    @After
+    public void unbind() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(sessionFactory);
+        SharedSessionCreator.releaseThreadSession(sessionFactory);
+    }
+
+    @Test
+    public void shouldReuseSessionOfThreadOutsideTransaction() {
+        sharedSession.clear();
+        Session current = SharedSessionCreator.getCurrentSession(sessionFactory);
+        assertSame(current, SharedSessionCreator.getCurrentSession(sessionFactory));
+        assertSame(current, ((SessionProxy) sharedSession).getTargetSession());
+        assertFalse(TransactionSynchronizationManager.hasResource(sessionFactory));
+
+        SharedSessionCreator.releaseThreadSession(sessionFactory);
+        assertNotSame(current, SharedSessionCreator.getCurrentSession(sessionFactory));
+    }
+
+    @Test
+    public void shouldRunTransactionOnSessionOfThread() {
+        final Session threadSession = SharedSessionCreator.getCurrentSession(sessionFactory);
+
+        new TransactionTemplate(new Neo4jTransactionManager(sharedSession)).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                assertSame(threadSession, SharedSessionCreator.getCurrentSession(sessionFactory));
+            }
+        });
+
+        assertSame(threadSession, SharedSessionCreator.getCurrentSession(sessionFactory));
+    }
+
+    @Test
+    public void shouldReuseSessionWithinTransaction() {
+        new TransactionTemplate(new Neo4jTransactionManager(sharedSession)).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                Session current = SharedSessionCreator.getCurrentSession(sessionFactory);
+                assertSame(current, SharedSessionCreator.getCurrentSession(sessionFactory));
+                assertSame(current, ((SessionProxy) sharedSession).getTargetSession());
+            }
+        });
+    }
+
+    @Test
+    public void shouldUseDifferentSessionsOnDifferentThreads() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new Neo4jTransactionManager(sharedSession));
+        final AtomicReference<Session> current = new AtomicReference<>();
+        final AtomicReference<Session> other = new AtomicReference<>();
+
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                current.set(SharedSessionCreator.getCurrentSession(sessionFactory));
+
+                Thread thread = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                            @Override
+                            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                                other.set(SharedSessionCreator.getCurrentSession(sessionFactory));
+                            }
+                        });
+                    }
+                });
+                thread.start();
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        assertNotNull(other.get());
+        assertNotSame(current.get(), other.get());
+    }
+
+    @Test
+    public void shouldScopeSessionToTransaction() {
+        final AtomicReference<Session> inTransaction = new AtomicReference<>();
+
+        new TransactionTemplate(new Neo4jTransactionManager(sharedSession)).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                inTransaction.set(SharedSessionCreator.getCurrentSession(sessionFactory));
+                assertNotNull(sharedSession.getTransaction());
+            }
+        });
+
+        assertNotNull(inTransaction.get());
+        assertFalse(TransactionSynchronizationManager.hasResource(sessionFactory));
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+
+    @Test
+    public void shouldImplementObjectMethodsOnTheProxy() {
+        assertEquals(sharedSession, sharedSession);
+        assertFalse(sharedSession.equals(SharedSessionCreator.createSharedSession(sessionFactory)));
+        assertFalse(TransactionSynchronizationManager.hasResource(sessionFactory));
+    }
+
+    @Test
+    public void shouldRouteReadOnlyTransactionsToReadReplica() {
+        final SessionFactory readReplica = new SessionFactory("org.springframework.data.neo4j.transactions.domain");
+        final AtomicReference<SessionFactory> routedTo = new AtomicReference<>();
+        final SessionRoutingPolicy delegate = new ReadReplicaRoutingPolicy(Collections.singletonList(readReplica));
+        Session routedSession = SharedSessionCreator.createSharedSession(sessionFactory, new SessionRoutingPolicy() {
+            @Override
+            public SessionFactory route(SessionFactory defaultSessionFactory, boolean readOnly) {
+                SessionFactory target = delegate.route(defaultSessionFactory, readOnly);
+                routedTo.set(target);
+                return target;
+            }
+        });
+        final Neo4jTemplate template = new Neo4jTemplate(routedSession);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new Neo4jTransactionManager(routedSession));
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                assertTrue(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                template.loadAll(User.class);
+                try {
+                    template.save(new User());
+                    fail("Writes should be rejected in a read-only transaction");
+                } catch (InvalidDataAccessApiUsageException expected) {
+                    // expected
+                }
+            }
+        });
+
+        assertSame(readReplica, routedTo.get());
+        assertFalse(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+
+    @Test
+    public void shouldNotRouteNonTransactionalReadsToReadReplica() {
+        SessionFactory readReplica = new SessionFactory("org.springframework.data.neo4j.transactions.domain");
+        final List<SessionFactory> routedTo = new ArrayList<>();
+        final SessionRoutingPolicy delegate = new ReadReplicaRoutingPolicy(Collections.singletonList(readReplica));
+        Neo4jTemplate template = new Neo4jTemplate(SharedSessionCreator.createSharedSession(sessionFactory, new SessionRoutingPolicy() {
+            @Override
+            public SessionFactory route(SessionFactory defaultSessionFactory, boolean readOnly) {
+                SessionFactory target = delegate.route(defaultSessionFactory, readOnly);
+                routedTo.add(target);
+                return target;
+            }
+        }));
+
+        template.loadAll(User.class);
+        template.queryForObjects(User.class, "MATCH (u:User) RETURN u", Collections.<String, Object>emptyMap());
+        assertFalse(routedTo.isEmpty());
+        assertFalse(routedTo.contains(readReplica));
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c)  [2011-2016] "Pivotal Software, Inc." / "Neo Technology" / "Graph Aware Ltd."
+ *
+ * This product is licensed to you under the Apache License, Version 2.0 (the "License").
+ * You may not use this product except in compliance with the License.
+ *
+ * This product may include a number of subcomponents with
+ * separate copyright notices and license terms. Your use of the source
+ * code for these subcomponents is subject to the terms and
+ * conditions of the subcomponent's license, as noted in the LICENSE file.
+ *
+ */
+
+package org.springframework.data.neo4j.transactions;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.ogm.session.Session;
+import org.neo4j.ogm.session.SessionFactory;
+import org.neo4j.ogm.testutil.MultiDriverTestClass;
+import org.springframework.data.neo4j.template.Neo4jTemplate;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionManager;
+import org.springframework.data.neo4j.transaction.Neo4jTransactionStatus;
+import org.springframework.data.neo4j.transaction.SharedSessionCreator;
+import org.springframework.data.neo4j.transactions.domain.User;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.NestedTransactionNotSupportedException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSuspensionNotSupportedException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Tobias Hartmann
+ */
+public class TransactionPropagationTest extends MultiDriverTestClass {
+
+    private SessionFactory sessionFactory;
+    private Session sharedSession;
+    private Neo4jTransactionManager transactionManager;
+
+    @Before
+    public void init() {
+        sessionFactory = new SessionFactory("org.springframework.data.neo4j.transactions.domain");
+        sharedSession = SharedSessionCreator.createSharedSession(sessionFactory);
+        transactionManager = new Neo4jTransactionManager(sharedSession);
+    }
+
+    @Test
+    public void shouldNotBeginTransactionForPropagationSupports() {
+        Neo4jTransactionStatus status = (Neo4jTransactionStatus) transactionManager.getTransaction(
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_SUPPORTS));
+
+        assertFalse(status.hasTransaction());
+        assertFalse(status.isNewTransaction());
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+
+        transactionManager.commit(status);
+        assertTrue(status.isCompleted());
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+
+    @Test(expected = IllegalTransactionStateException.class)
+    public void shouldRequireExistingTransactionForPropagationMandatory() {
+        transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_MANDATORY));
+    }
+
+    @Test
+    public void shouldRejectExistingTransactionForPropagationNever() {
+        TransactionStatus outer = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NEVER));
+            fail("Should have rejected the existing transaction");
+        } catch (IllegalTransactionStateException expected) {
+            // expected
+        } finally {
+            transactionManager.rollback(outer);
+        }
+    }
+
+    @Test
+    public void shouldSuspendAndResumeTransactionForPropagationRequiresNew() {
+        final Session outerSession = inTransaction(TransactionDefinition.PROPAGATION_REQUIRED, new Runnable() {
+            @Override
+            public void run() {
+                final Session current = SharedSessionCreator.getCurrentSession(sessionFactory);
+                Session inner = inTransaction(TransactionDefinition.PROPAGATION_REQUIRES_NEW, null);
+
+                assertNotSame(current, inner);
+                assertSame(current, SharedSessionCreator.getCurrentSession(sessionFactory));
+                assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            }
+        });
+        assertNotNull(outerSession);
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+
+    @Test
+    public void shouldCommitTransactionForPropagationRequiresNewWhenOuterTransactionRollsBack() {
+        Session session = sessionFactory.openSession();
+        session.purgeDatabase();
+        final Session sharedSession = SharedSessionCreator.createSharedSession(sessionFactory);
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                sharedSession.save(new User("outer"));
+                inTransaction(TransactionDefinition.PROPAGATION_REQUIRES_NEW, new Runnable() {
+                    @Override
+                    public void run() {
+                        sharedSession.save(new User("inner"));
+                    }
+                });
+                status.setRollbackOnly();
+            }
+        });
+
+        Collection<User> users = session.loadAll(User.class);
+        assertEquals(1, users.size());
+        assertEquals("inner", users.iterator().next().getName());
+    }
+
+    @Test
+    public void shouldRejectPropagationRequiresNewForPlainSession() {
+        Neo4jTransactionManager plainTransactionManager = new Neo4jTransactionManager(sessionFactory.openSession());
+        TransactionStatus outer = plainTransactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            plainTransactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+            fail("Should have refused to suspend the transaction of a plain session");
+        } catch (TransactionSuspensionNotSupportedException expected) {
+            // expected
+        } finally {
+            plainTransactionManager.rollback(outer);
+        }
+    }
+
+    @Test
+    public void shouldRejectPropagationNestedInsideExistingTransaction() {
+        TransactionStatus outer = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NESTED));
+            fail("Should have rejected the nested transaction");
+        } catch (NestedTransactionNotSupportedException expected) {
+            assertFalse(outer.isRollbackOnly());
+        } finally {
+            transactionManager.rollback(outer);
+        }
+    }
+
+    @Test
+    public void shouldSuspendTransactionForPropagationNotSupported() {
+        inTransaction(TransactionDefinition.PROPAGATION_REQUIRED, new Runnable() {
+            @Override
+            public void run() {
+                inTransaction(TransactionDefinition.PROPAGATION_NOT_SUPPORTED, new Runnable() {
+                    @Override
+                    public void run() {
+                        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+                        assertNull(SharedSessionCreator.getCurrentSession(sessionFactory).getTransaction());
+                    }
+                });
+                assertTrue(TransactionSynchronizationManager.isActualTransactionActive());
+            }
+        });
+    }
+
+    @Test(expected = TransactionTimedOutException.class)
+    public void shouldRollbackTransactionThatTimedOut() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout(1);
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                try {
+                    Thread.sleep(1100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void shouldCheckTimeoutBeforeTemplateOperations() {
+        final Neo4jTemplate template = new Neo4jTemplate(sharedSession);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setTimeout(1);
+        try {
+            transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(TransactionStatus status) {
+                    template.save(new User());
+                    try {
+                        Thread.sleep(1100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    template.save(new User());
+                }
+            });
+            fail("The second save should have been rejected");
+        } catch (TransactionTimedOutException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldRollbackTransactionMarkedRollbackOnlyByParticipant() {
+        TransactionStatus outer = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        TransactionStatus inner = transactionManager.getTransaction(new DefaultTransactionDefinition());
+
+        inner.setRollbackOnly();
+        assertTrue(inner.isRollbackOnly());
+        transactionManager.commit(inner);
+        assertTrue(outer.isRollbackOnly());
+
+        try {
+            transactionManager.commit(outer);
+            fail("Should have rolled back the transaction");
+        } catch (UnexpectedRollbackException expected) {
+            assertTrue(outer.isCompleted());
+            assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+        }
+    }
+
+    @Test
+    public void shouldRollbackTransactionMarkedRollbackOnlyLocally() {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        status.setRollbackOnly();
+        transactionManager.commit(status);
+        assertTrue(status.isCompleted());
+    }
+
+    @Test
+    public void shouldFlushTransactionSynchronizations() {
+        final AtomicBoolean flushed = new AtomicBoolean();
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void flush() {
+                flushed.set(true);
+            }
+        });
+
+        status.flush();
+        transactionManager.commit(status);
+        assertTrue(flushed.get());
+    }
+
+    private Session inTransaction(int propagation, final Runnable work) {
+        final AtomicReference<Session> session = new AtomicReference<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(propagation);
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                session.set(SharedSessionCreator.getCurrentSession(sessionFactory));
+                if (work != null) {
+                    work.run();
+                }
+            }
+        });
+        return session.get();
+    }
+}
@@ -22,6 +22,7 @@ import org.neo4j.ogm.testutil.MultiDriverTestClass;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
@@ -145,4 +146,24 @@ public class IterableUtilsTest extends MultiDriverTestClass {
     public void exceptionShouldBeThrownWhenIterableHasMoreThanOneElement2WhenRequestingFirst() {
         assertEquals("test1", getFirst(Arrays.asList("test1", "test2"), "test"));
     }
+
+    @Test
+    public void partitionShouldSplitIntoListsOfAtMostTheGivenSize() {
+        List<List<String>> partitions = partition(asList("a", "b", "c", "d", "e"), 2);
+
+        assertEquals(3, partitions.size());
+        assertEquals(asList("a", "b"), partitions.get(0));
+        assertEquals(asList("c", "d"), partitions.get(1));
+        assertEquals(Collections.singletonList("e"), partitions.get(2));
+    }
+
+    @Test
+    public void partitionOfEmptyIterableShouldBeEmpty() {
+        assertTrue(partition(Collections.emptyList(), 10).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void partitionShouldRejectNonPositiveSize() {
+        partition(asList("a"), 0);
+    }
 }